@@ -9,10 +9,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import com.microsoft.onnxruntime.OrtEnvironment;
-import com.microsoft.onnxruntime.OrtException;
-import com.microsoft.onnxruntime.OrtSession;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 @Configuration
@@ -30,13 +32,32 @@ public class AnprConfig {
         return this.environment;
     }
 
+    /**
+     * The graph optimised by ONNX Runtime is cached next to the model and
+     * reused, without optimising again, as long as it is newer than the model.
+     */
     @Bean
-    public OrtSession ortSession(OrtEnvironment environment, AnprProperties properties) throws OrtException {
+    public OrtSession ortSession(OrtEnvironment environment, AnprProperties properties)
+            throws OrtException, IOException {
+        long start = System.nanoTime();
         Path modelPath = Path.of(properties.getModelPath()).toAbsolutePath();
-        log.info("Loading ONNX model from {}", modelPath);
+        String cache = properties.getStartup().getOptimizedModelPath();
+        Path cachePath = cache == null || cache.isBlank() ? null : Path.of(cache).toAbsolutePath();
         OrtSession.SessionOptions options = new OrtSession.SessionOptions();
-        options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
-        this.session = environment.createSession(modelPath.toString(), options);
+        if (cachePath != null && Files.isRegularFile(cachePath) && Files.isRegularFile(modelPath)
+                && Files.getLastModifiedTime(cachePath).compareTo(Files.getLastModifiedTime(modelPath)) > 0) {
+            log.info("Loading optimised ONNX model from {}", cachePath);
+            options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.NO_OPT);
+            this.session = environment.createSession(cachePath.toString(), options);
+        } else {
+            log.info("Loading ONNX model from {}", modelPath);
+            options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+            if (cachePath != null) {
+                options.setOptimizedModelFilePath(cachePath.toString());
+            }
+            this.session = environment.createSession(modelPath.toString(), options);
+        }
+        log.info("ONNX session ready in {} ms", (System.nanoTime() - start) / 1_000_000.0);
         return this.session;
     }
 
@@ -67,15 +88,8 @@ public class AnprConfig {
         } catch (OrtException e) {
             log.warn("Failed to close OrtSession", e);
         }
-        try {
-            if (environment != null) {
-                environment.close();
-            }
-        } catch (OrtException e) {
-            log.warn("Failed to close OrtEnvironment", e);
-        }
-        if (tesseract != null) {
-            tesseract.close();
+        if (environment != null) {
+            environment.close();
         }
     }
 }
@@ -2,6 +2,11 @@ package com.example.anpr.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @ConfigurationProperties(prefix = "anpr")
 public class AnprProperties {
 
@@ -12,6 +17,19 @@ public class AnprProperties {
     private String tessdataPath;
     private String ocrLang;
     private boolean returnRawText;
+    private String decoder = "auto";
+    private final Stream stream = new Stream();
+    private final WebSocket websocket = new WebSocket();
+    private final Hotlist hotlist = new Hotlist();
+    private final ReadLog readLog = new ReadLog();
+    private final Evidence evidence = new Evidence();
+    private final Jobs jobs = new Jobs();
+    private final Watch watch = new Watch();
+    private final Startup startup = new Startup();
+    private final Diagnostics diagnostics = new Diagnostics();
+    private final Lanes lanes = new Lanes();
+    private final Roi roi = new Roi();
+    private final OcrStitch ocrStitch = new OcrStitch();
 
     public String getModelPath() {
         return modelPath;
@@ -68,4 +86,742 @@ public class AnprProperties {
     public void setReturnRawText(boolean returnRawText) {
         this.returnRawText = returnRawText;
     }
+
+    public String getDecoder() {
+        return decoder;
+    }
+
+    public void setDecoder(String decoder) {
+        this.decoder = decoder;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public WebSocket getWebsocket() {
+        return websocket;
+    }
+
+    public Hotlist getHotlist() {
+        return hotlist;
+    }
+
+    public ReadLog getReadLog() {
+        return readLog;
+    }
+
+    public Evidence getEvidence() {
+        return evidence;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public Watch getWatch() {
+        return watch;
+    }
+
+    public Startup getStartup() {
+        return startup;
+    }
+
+    public Diagnostics getDiagnostics() {
+        return diagnostics;
+    }
+
+    public Lanes getLanes() {
+        return lanes;
+    }
+
+    public Roi getRoi() {
+        return roi;
+    }
+
+    public OcrStitch getOcrStitch() {
+        return ocrStitch;
+    }
+
+    public static class Stream {
+
+        private boolean enabled;
+        private int maxSkip = 8;
+        private List<Source> sources = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSkip() {
+            return maxSkip;
+        }
+
+        public void setMaxSkip(int maxSkip) {
+            this.maxSkip = maxSkip;
+        }
+
+        public List<Source> getSources() {
+            return sources;
+        }
+
+        public void setSources(List<Source> sources) {
+            this.sources = sources;
+        }
+    }
+
+    public static class Source {
+
+        private String id;
+        private String uri;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public void setUri(String uri) {
+            this.uri = uri;
+        }
+    }
+
+    public static class WebSocket {
+
+        private int maxFrameBytes = 4 * 1024 * 1024;
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private int sendTimeLimitMs = 5000;
+        private int sendBufferBytes = 256 * 1024;
+        /**
+         * Browser origins allowed to open the socket. Empty means same-origin
+         * only; clients that send no {@code Origin} header are not affected.
+         */
+        private List<String> allowedOrigins = new ArrayList<>();
+
+        public int getMaxFrameBytes() {
+            return maxFrameBytes;
+        }
+
+        public void setMaxFrameBytes(int maxFrameBytes) {
+            this.maxFrameBytes = maxFrameBytes;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getSendTimeLimitMs() {
+            return sendTimeLimitMs;
+        }
+
+        public void setSendTimeLimitMs(int sendTimeLimitMs) {
+            this.sendTimeLimitMs = sendTimeLimitMs;
+        }
+
+        public int getSendBufferBytes() {
+            return sendBufferBytes;
+        }
+
+        public void setSendBufferBytes(int sendBufferBytes) {
+            this.sendBufferBytes = sendBufferBytes;
+        }
+
+        public List<String> getAllowedOrigins() {
+            return allowedOrigins;
+        }
+
+        public void setAllowedOrigins(List<String> allowedOrigins) {
+            this.allowedOrigins = allowedOrigins;
+        }
+    }
+
+    public static class Hotlist {
+
+        private boolean enabled;
+        private String path = "./hotlist/hotlist.csv";
+        private boolean fuzzy = true;
+        private int reloadIntervalSec = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public boolean isFuzzy() {
+            return fuzzy;
+        }
+
+        public void setFuzzy(boolean fuzzy) {
+            this.fuzzy = fuzzy;
+        }
+
+        public int getReloadIntervalSec() {
+            return reloadIntervalSec;
+        }
+
+        public void setReloadIntervalSec(int reloadIntervalSec) {
+            this.reloadIntervalSec = reloadIntervalSec;
+        }
+    }
+
+    public static class ReadLog {
+
+        private boolean enabled;
+        private String directory = "./readlog";
+        private int segmentSizeMb = 64;
+        private int queueCapacity = 65536;
+        private int flushIntervalMs = 1000;
+        private int retentionDays = 180;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getSegmentSizeMb() {
+            return segmentSizeMb;
+        }
+
+        public void setSegmentSizeMb(int segmentSizeMb) {
+            this.segmentSizeMb = segmentSizeMb;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(int flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+    }
+
+    public static class Evidence {
+
+        public enum DropPolicy {
+            DROP_NEWEST,
+            DROP_OLDEST
+        }
+
+        private boolean enabled;
+        private String directory = "./evidence";
+        private int queueCapacity = 256;
+        private DropPolicy dropPolicy = DropPolicy.DROP_NEWEST;
+        private int jpegQuality = 90;
+        private int frameMaxWidth = 640;
+        private int segmentSizeMb = 512;
+        private int fsyncIntervalMs = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public DropPolicy getDropPolicy() {
+            return dropPolicy;
+        }
+
+        public void setDropPolicy(DropPolicy dropPolicy) {
+            this.dropPolicy = dropPolicy;
+        }
+
+        public int getJpegQuality() {
+            return jpegQuality;
+        }
+
+        public void setJpegQuality(int jpegQuality) {
+            this.jpegQuality = jpegQuality;
+        }
+
+        public int getFrameMaxWidth() {
+            return frameMaxWidth;
+        }
+
+        public void setFrameMaxWidth(int frameMaxWidth) {
+            this.frameMaxWidth = frameMaxWidth;
+        }
+
+        public int getSegmentSizeMb() {
+            return segmentSizeMb;
+        }
+
+        public void setSegmentSizeMb(int segmentSizeMb) {
+            this.segmentSizeMb = segmentSizeMb;
+        }
+
+        public int getFsyncIntervalMs() {
+            return fsyncIntervalMs;
+        }
+
+        public void setFsyncIntervalMs(int fsyncIntervalMs) {
+            this.fsyncIntervalMs = fsyncIntervalMs;
+        }
+    }
+
+    public static class Jobs {
+
+        private String directory = "./jobs";
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private int maxAttempts = 3;
+        private int maxUploadMb = 1024;
+        private int maxExtractedMb = 4096;
+        private int maxFiles = 100000;
+        private int retentionHours = 72;
+        private int cleanupIntervalMin = 10;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public int getMaxUploadMb() {
+            return maxUploadMb;
+        }
+
+        public void setMaxUploadMb(int maxUploadMb) {
+            this.maxUploadMb = maxUploadMb;
+        }
+
+        public int getMaxExtractedMb() {
+            return maxExtractedMb;
+        }
+
+        public void setMaxExtractedMb(int maxExtractedMb) {
+            this.maxExtractedMb = maxExtractedMb;
+        }
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+
+        public int getRetentionHours() {
+            return retentionHours;
+        }
+
+        public void setRetentionHours(int retentionHours) {
+            this.retentionHours = retentionHours;
+        }
+
+        public int getCleanupIntervalMin() {
+            return cleanupIntervalMin;
+        }
+
+        public void setCleanupIntervalMin(int cleanupIntervalMin) {
+            this.cleanupIntervalMin = cleanupIntervalMin;
+        }
+    }
+
+    public static class Watch {
+
+        private boolean enabled;
+        private String inputDir = "./inbox";
+        private String processedDir = "./inbox/processed";
+        private String failedDir = "./inbox/failed";
+        private String outputDir = "./results";
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int settleMs = 500;
+        private int maxOutputFileMb = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getInputDir() {
+            return inputDir;
+        }
+
+        public void setInputDir(String inputDir) {
+            this.inputDir = inputDir;
+        }
+
+        public String getProcessedDir() {
+            return processedDir;
+        }
+
+        public void setProcessedDir(String processedDir) {
+            this.processedDir = processedDir;
+        }
+
+        public String getFailedDir() {
+            return failedDir;
+        }
+
+        public void setFailedDir(String failedDir) {
+            this.failedDir = failedDir;
+        }
+
+        public String getOutputDir() {
+            return outputDir;
+        }
+
+        public void setOutputDir(String outputDir) {
+            this.outputDir = outputDir;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getSettleMs() {
+            return settleMs;
+        }
+
+        public void setSettleMs(int settleMs) {
+            this.settleMs = settleMs;
+        }
+
+        public int getMaxOutputFileMb() {
+            return maxOutputFileMb;
+        }
+
+        public void setMaxOutputFileMb(int maxOutputFileMb) {
+            this.maxOutputFileMb = maxOutputFileMb;
+        }
+    }
+
+    public static class Startup {
+
+        private String optimizedModelPath = "./models/best.optimized.onnx";
+        private boolean warmupEnabled = true;
+        private int warmupIterations = 3;
+
+        public String getOptimizedModelPath() {
+            return optimizedModelPath;
+        }
+
+        public void setOptimizedModelPath(String optimizedModelPath) {
+            this.optimizedModelPath = optimizedModelPath;
+        }
+
+        public boolean isWarmupEnabled() {
+            return warmupEnabled;
+        }
+
+        public void setWarmupEnabled(boolean warmupEnabled) {
+            this.warmupEnabled = warmupEnabled;
+        }
+
+        public int getWarmupIterations() {
+            return warmupIterations;
+        }
+
+        public void setWarmupIterations(int warmupIterations) {
+            this.warmupIterations = warmupIterations;
+        }
+    }
+
+    public static class Diagnostics {
+
+        private boolean serverTiming = true;
+        private int slowSamples = 16;
+        private long slowThresholdMs = 250;
+
+        public boolean isServerTiming() {
+            return serverTiming;
+        }
+
+        public void setServerTiming(boolean serverTiming) {
+            this.serverTiming = serverTiming;
+        }
+
+        public int getSlowSamples() {
+            return slowSamples;
+        }
+
+        public void setSlowSamples(int slowSamples) {
+            this.slowSamples = slowSamples;
+        }
+
+        public long getSlowThresholdMs() {
+            return slowThresholdMs;
+        }
+
+        public void setSlowThresholdMs(long slowThresholdMs) {
+            this.slowThresholdMs = slowThresholdMs;
+        }
+    }
+
+    public static class Lanes {
+
+        private int detectorPermits = 2;
+        private int ocrPermits = 1;
+        private String defaultLane = "live";
+        private Map<String, Integer> weights = new LinkedHashMap<>(Map.of("live", 8, "bulk", 1));
+        private Map<String, String> apiKeys = new LinkedHashMap<>();
+
+        public int getDetectorPermits() {
+            return detectorPermits;
+        }
+
+        public void setDetectorPermits(int detectorPermits) {
+            this.detectorPermits = detectorPermits;
+        }
+
+        public int getOcrPermits() {
+            return ocrPermits;
+        }
+
+        public void setOcrPermits(int ocrPermits) {
+            this.ocrPermits = ocrPermits;
+        }
+
+        public String getDefaultLane() {
+            return defaultLane;
+        }
+
+        public void setDefaultLane(String defaultLane) {
+            this.defaultLane = defaultLane;
+        }
+
+        public Map<String, Integer> getWeights() {
+            return weights;
+        }
+
+        public void setWeights(Map<String, Integer> weights) {
+            this.weights = weights;
+        }
+
+        public Map<String, String> getApiKeys() {
+            return apiKeys;
+        }
+
+        public void setApiKeys(Map<String, String> apiKeys) {
+            this.apiKeys = apiKeys;
+        }
+    }
+
+    public static class Roi {
+
+        private boolean enabled = false;
+        private String directory = "./roi";
+        private int gridSize = 32;
+        private int minSamples = 200;
+        private double trim = 0.005;
+        private double margin = 0.15;
+        private double maxAreaFraction = 0.8;
+        private int fullFrameInterval = 50;
+        private int saveIntervalSec = 60;
+        private int decayLimit = 4096;
+        private int maxCameras = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getGridSize() {
+            return gridSize;
+        }
+
+        public void setGridSize(int gridSize) {
+            this.gridSize = gridSize;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public double getTrim() {
+            return trim;
+        }
+
+        public void setTrim(double trim) {
+            this.trim = trim;
+        }
+
+        public double getMargin() {
+            return margin;
+        }
+
+        public void setMargin(double margin) {
+            this.margin = margin;
+        }
+
+        public double getMaxAreaFraction() {
+            return maxAreaFraction;
+        }
+
+        public void setMaxAreaFraction(double maxAreaFraction) {
+            this.maxAreaFraction = maxAreaFraction;
+        }
+
+        public int getFullFrameInterval() {
+            return fullFrameInterval;
+        }
+
+        public void setFullFrameInterval(int fullFrameInterval) {
+            this.fullFrameInterval = fullFrameInterval;
+        }
+
+        public int getSaveIntervalSec() {
+            return saveIntervalSec;
+        }
+
+        public void setSaveIntervalSec(int saveIntervalSec) {
+            this.saveIntervalSec = saveIntervalSec;
+        }
+
+        public int getDecayLimit() {
+            return decayLimit;
+        }
+
+        public void setDecayLimit(int decayLimit) {
+            this.decayLimit = decayLimit;
+        }
+
+        public int getMaxCameras() {
+            return maxCameras;
+        }
+
+        public void setMaxCameras(int maxCameras) {
+            this.maxCameras = maxCameras;
+        }
+    }
+
+    public static class OcrStitch {
+
+        private boolean enabled = false;
+        private int plateHeight = 64;
+        private int maxPlates = 16;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPlateHeight() {
+            return plateHeight;
+        }
+
+        public void setPlateHeight(int plateHeight) {
+            this.plateHeight = plateHeight;
+        }
+
+        public int getMaxPlates() {
+            return maxPlates;
+        }
+
+        public void setMaxPlates(int maxPlates) {
+            this.maxPlates = maxPlates;
+        }
+    }
 }
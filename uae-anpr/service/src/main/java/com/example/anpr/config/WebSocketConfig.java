@@ -0,0 +1,36 @@
+package com.example.anpr.config;
+
+import com.example.anpr.web.PlateWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final PlateWebSocketHandler plateWebSocketHandler;
+    private final AnprProperties properties;
+
+    public WebSocketConfig(PlateWebSocketHandler plateWebSocketHandler, AnprProperties properties) {
+        this.plateWebSocketHandler = plateWebSocketHandler;
+        this.properties = properties;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(plateWebSocketHandler, "/api/v1/plates/ws").setAllowedOrigins(
+                properties.getWebsocket().getAllowedOrigins().toArray(String[]::new));
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer(AnprProperties properties) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(properties.getWebsocket().getMaxFrameBytes());
+        container.setMaxTextMessageBufferSize(8 * 1024);
+        return container;
+    }
+}
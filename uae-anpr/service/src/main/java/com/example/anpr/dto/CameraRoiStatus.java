@@ -0,0 +1,138 @@
+package com.example.anpr.dto;
+
+import com.example.anpr.util.RoiHeatMap;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CameraRoiStatus {
+
+    private String cameraId;
+    private int frameWidth;
+    private int frameHeight;
+    private long samples;
+    private boolean active;
+    private RoiHeatMap.Region roi;
+    private Double areaFraction;
+    private Double resolutionGain;
+    private long croppedFrames;
+    private long fullFrameChecks;
+    private long misses;
+    private Double croppedDetectorMs;
+    private Double fullFrameDetectorMs;
+    private Double detectorSpeedup;
+
+    public CameraRoiStatus() {
+    }
+
+    public String getCameraId() {
+        return cameraId;
+    }
+
+    public void setCameraId(String cameraId) {
+        this.cameraId = cameraId;
+    }
+
+    public int getFrameWidth() {
+        return frameWidth;
+    }
+
+    public void setFrameWidth(int frameWidth) {
+        this.frameWidth = frameWidth;
+    }
+
+    public int getFrameHeight() {
+        return frameHeight;
+    }
+
+    public void setFrameHeight(int frameHeight) {
+        this.frameHeight = frameHeight;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public void setSamples(long samples) {
+        this.samples = samples;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public RoiHeatMap.Region getRoi() {
+        return roi;
+    }
+
+    public void setRoi(RoiHeatMap.Region roi) {
+        this.roi = roi;
+    }
+
+    public Double getAreaFraction() {
+        return areaFraction;
+    }
+
+    public void setAreaFraction(Double areaFraction) {
+        this.areaFraction = areaFraction;
+    }
+
+    public Double getResolutionGain() {
+        return resolutionGain;
+    }
+
+    public void setResolutionGain(Double resolutionGain) {
+        this.resolutionGain = resolutionGain;
+    }
+
+    public long getCroppedFrames() {
+        return croppedFrames;
+    }
+
+    public void setCroppedFrames(long croppedFrames) {
+        this.croppedFrames = croppedFrames;
+    }
+
+    public long getFullFrameChecks() {
+        return fullFrameChecks;
+    }
+
+    public void setFullFrameChecks(long fullFrameChecks) {
+        this.fullFrameChecks = fullFrameChecks;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public Double getCroppedDetectorMs() {
+        return croppedDetectorMs;
+    }
+
+    public void setCroppedDetectorMs(Double croppedDetectorMs) {
+        this.croppedDetectorMs = croppedDetectorMs;
+    }
+
+    public Double getFullFrameDetectorMs() {
+        return fullFrameDetectorMs;
+    }
+
+    public void setFullFrameDetectorMs(Double fullFrameDetectorMs) {
+        this.fullFrameDetectorMs = fullFrameDetectorMs;
+    }
+
+    public Double getDetectorSpeedup() {
+        return detectorSpeedup;
+    }
+
+    public void setDetectorSpeedup(Double detectorSpeedup) {
+        this.detectorSpeedup = detectorSpeedup;
+    }
+}
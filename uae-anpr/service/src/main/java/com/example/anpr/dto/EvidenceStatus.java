@@ -0,0 +1,62 @@
+package com.example.anpr.dto;
+
+public class EvidenceStatus {
+
+    private boolean enabled;
+    private String dropPolicy;
+    private int queued;
+    private long written;
+    private long dropped;
+    private long segment;
+
+    public EvidenceStatus() {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDropPolicy() {
+        return dropPolicy;
+    }
+
+    public void setDropPolicy(String dropPolicy) {
+        this.dropPolicy = dropPolicy;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public void setWritten(long written) {
+        this.written = written;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(long dropped) {
+        this.dropped = dropped;
+    }
+
+    public long getSegment() {
+        return segment;
+    }
+
+    public void setSegment(long segment) {
+        this.segment = segment;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.anpr.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FileResult {
+
+    private String file;
+    private String processedAt;
+    private List<PlateResult> results;
+    private String error;
+
+    public FileResult() {
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public String getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(String processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public List<PlateResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<PlateResult> results) {
+        this.results = results;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
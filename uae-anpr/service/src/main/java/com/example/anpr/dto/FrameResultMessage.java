@@ -0,0 +1,53 @@
+package com.example.anpr.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FrameResultMessage {
+
+    private long seq;
+    private List<PlateResult> results;
+    private Boolean dropped;
+    private String error;
+
+    public FrameResultMessage() {
+    }
+
+    public FrameResultMessage(long seq) {
+        this.seq = seq;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public List<PlateResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<PlateResult> results) {
+        this.results = results;
+    }
+
+    public Boolean getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(Boolean dropped) {
+        this.dropped = dropped;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.anpr.dto;
+
+import java.util.List;
+
+public class HotlistMatch {
+
+    private List<String> lists;
+    private boolean fuzzy;
+
+    public HotlistMatch() {
+    }
+
+    public HotlistMatch(List<String> lists, boolean fuzzy) {
+        this.lists = lists;
+        this.fuzzy = fuzzy;
+    }
+
+    public List<String> getLists() {
+        return lists;
+    }
+
+    public void setLists(List<String> lists) {
+        this.lists = lists;
+    }
+
+    public boolean isFuzzy() {
+        return fuzzy;
+    }
+
+    public void setFuzzy(boolean fuzzy) {
+        this.fuzzy = fuzzy;
+    }
+}
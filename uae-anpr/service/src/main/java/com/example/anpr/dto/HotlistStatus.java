@@ -0,0 +1,55 @@
+package com.example.anpr.dto;
+
+import java.util.List;
+
+public class HotlistStatus {
+
+    private boolean enabled;
+    private String path;
+    private long entries;
+    private List<String> lists;
+    private String loadedAt;
+
+    public HotlistStatus() {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public void setEntries(long entries) {
+        this.entries = entries;
+    }
+
+    public List<String> getLists() {
+        return lists;
+    }
+
+    public void setLists(List<String> lists) {
+        this.lists = lists;
+    }
+
+    public String getLoadedAt() {
+        return loadedAt;
+    }
+
+    public void setLoadedAt(String loadedAt) {
+        this.loadedAt = loadedAt;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.anpr.dto;
+
+import java.util.List;
+
+public class JobItem {
+
+    private int index;
+    private String name;
+    private String status;
+    private int attempts;
+    private List<PlateResult> results;
+    private String error;
+
+    public JobItem() {
+    }
+
+    public JobItem(int index, String name) {
+        this.index = index;
+        this.name = name;
+        this.status = "PENDING";
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public List<PlateResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<PlateResult> results) {
+        this.results = results;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
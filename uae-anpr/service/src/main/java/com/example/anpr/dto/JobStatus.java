@@ -0,0 +1,73 @@
+package com.example.anpr.dto;
+
+import java.util.List;
+
+public class JobStatus {
+
+    private String id;
+    private String state;
+    private String createdAt;
+    private int total;
+    private int completed;
+    private int failed;
+    private List<JobItem> items;
+
+    public JobStatus() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<JobItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<JobItem> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.anpr.dto;
+
+public class LaneStatus {
+
+    private String engine;
+    private String lane;
+    private int weight;
+    private int queued;
+    private int inFlight;
+    private long granted;
+    private double meanWaitMs;
+    private double maxWaitMs;
+    private Double meanLatencyMs;
+
+    public LaneStatus() {
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public String getLane() {
+        return lane;
+    }
+
+    public void setLane(String lane) {
+        this.lane = lane;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(int inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public long getGranted() {
+        return granted;
+    }
+
+    public void setGranted(long granted) {
+        this.granted = granted;
+    }
+
+    public double getMeanWaitMs() {
+        return meanWaitMs;
+    }
+
+    public void setMeanWaitMs(double meanWaitMs) {
+        this.meanWaitMs = meanWaitMs;
+    }
+
+    public double getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    public void setMaxWaitMs(double maxWaitMs) {
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public Double getMeanLatencyMs() {
+        return meanLatencyMs;
+    }
+
+    public void setMeanLatencyMs(Double meanLatencyMs) {
+        this.meanLatencyMs = meanLatencyMs;
+    }
+}
@@ -11,6 +11,8 @@ public class PlateResult {
     private String letter;
     private String emirate;
     private String rawText;
+    private HotlistMatch hotlist;
+    private Long evidenceId;
 
     public PlateResult() {
     }
@@ -86,4 +88,20 @@ public class PlateResult {
     public void setRawText(String rawText) {
         this.rawText = rawText;
     }
+
+    public HotlistMatch getHotlist() {
+        return hotlist;
+    }
+
+    public void setHotlist(HotlistMatch hotlist) {
+        this.hotlist = hotlist;
+    }
+
+    public Long getEvidenceId() {
+        return evidenceId;
+    }
+
+    public void setEvidenceId(Long evidenceId) {
+        this.evidenceId = evidenceId;
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.anpr.dto;
+
+public class ReadRecord {
+
+    private String timestamp;
+    private String number;
+    private String letter;
+    private String emirate;
+    private double confidence;
+
+    public ReadRecord() {
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+    public String getLetter() {
+        return letter;
+    }
+
+    public void setLetter(String letter) {
+        this.letter = letter;
+    }
+
+    public String getEmirate() {
+        return emirate;
+    }
+
+    public void setEmirate(String emirate) {
+        this.emirate = emirate;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+    }
+}
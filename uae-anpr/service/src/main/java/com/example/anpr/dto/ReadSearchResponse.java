@@ -0,0 +1,23 @@
+package com.example.anpr.dto;
+
+import java.util.List;
+
+public class ReadSearchResponse {
+
+    private List<ReadRecord> results;
+
+    public ReadSearchResponse() {
+    }
+
+    public ReadSearchResponse(List<ReadRecord> results) {
+        this.results = results;
+    }
+
+    public List<ReadRecord> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ReadRecord> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.anpr.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class SlowRequestSample {
+
+    private long requestId;
+    private Instant timestamp;
+    private double totalMs;
+    private Map<String, Double> stagesMs;
+    private int detections;
+    private String error;
+    private String contentType;
+    private int imageBytes;
+
+    public SlowRequestSample() {
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public double getTotalMs() {
+        return totalMs;
+    }
+
+    public void setTotalMs(double totalMs) {
+        this.totalMs = totalMs;
+    }
+
+    public Map<String, Double> getStagesMs() {
+        return stagesMs;
+    }
+
+    public void setStagesMs(Map<String, Double> stagesMs) {
+        this.stagesMs = stagesMs;
+    }
+
+    public int getDetections() {
+        return detections;
+    }
+
+    public void setDetections(int detections) {
+        this.detections = detections;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public int getImageBytes() {
+        return imageBytes;
+    }
+
+    public void setImageBytes(int imageBytes) {
+        this.imageBytes = imageBytes;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.anpr.dto;
+
+import java.util.List;
+
+public class StreamStats {
+
+    private String id;
+    private String uri;
+    private String state;
+    private long framesIn;
+    private long framesSkipped;
+    private long framesDropped;
+    private long framesProcessed;
+    private double fpsIn;
+    private double fpsOut;
+    private int skipStride;
+    private List<PlateResult> lastResults;
+
+    public StreamStats() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public long getFramesIn() {
+        return framesIn;
+    }
+
+    public void setFramesIn(long framesIn) {
+        this.framesIn = framesIn;
+    }
+
+    public long getFramesSkipped() {
+        return framesSkipped;
+    }
+
+    public void setFramesSkipped(long framesSkipped) {
+        this.framesSkipped = framesSkipped;
+    }
+
+    public long getFramesDropped() {
+        return framesDropped;
+    }
+
+    public void setFramesDropped(long framesDropped) {
+        this.framesDropped = framesDropped;
+    }
+
+    public long getFramesProcessed() {
+        return framesProcessed;
+    }
+
+    public void setFramesProcessed(long framesProcessed) {
+        this.framesProcessed = framesProcessed;
+    }
+
+    public double getFpsIn() {
+        return fpsIn;
+    }
+
+    public void setFpsIn(double fpsIn) {
+        this.fpsIn = fpsIn;
+    }
+
+    public double getFpsOut() {
+        return fpsOut;
+    }
+
+    public void setFpsOut(double fpsOut) {
+        this.fpsOut = fpsOut;
+    }
+
+    public int getSkipStride() {
+        return skipStride;
+    }
+
+    public void setSkipStride(int skipStride) {
+        this.skipStride = skipStride;
+    }
+
+    public List<PlateResult> getLastResults() {
+        return lastResults;
+    }
+
+    public void setLastResults(List<PlateResult> lastResults) {
+        this.lastResults = lastResults;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.anpr.service;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes YOLOv5-style anchor heads where each box carries
+ * {@code [cx, cy, w, h, objectness, class scores...]} and confidence is
+ * objectness times the best class score. Ultralytics exports apply the sigmoid
+ * inside the graph, so values are already probabilities. Objectness is checked
+ * first so most boxes are rejected without reading their class scores.
+ */
+final class AnchorDetectionDecoder implements DetectionDecoder {
+
+    private final int numFeatures;
+    private final boolean channelsFirst;
+
+    AnchorDetectionDecoder(int numFeatures, boolean channelsFirst) {
+        if (numFeatures < 5) {
+            throw new IllegalArgumentException("Anchor output needs at least 5 features, got " + numFeatures);
+        }
+        this.numFeatures = numFeatures;
+        this.channelsFirst = channelsFirst;
+    }
+
+    @Override
+    public String name() {
+        return "anchor" + (channelsFirst ? " (channels first)" : "");
+    }
+
+    @Override
+    public boolean requiresNms() {
+        return true;
+    }
+
+    @Override
+    public List<YoloOnnxService.Detection> decode(FloatBuffer output, Letterbox letterbox, double confThreshold) {
+        int base = output.position();
+        int numBoxes = output.remaining() / numFeatures;
+        // Box stride and feature stride for the two memory layouts.
+        int boxStride = channelsFirst ? 1 : numFeatures;
+        int featureStride = channelsFirst ? numBoxes : 1;
+        List<YoloOnnxService.Detection> detections = new ArrayList<>();
+        for (int i = 0; i < numBoxes; i++) {
+            int offset = base + i * boxStride;
+            float objectness = output.get(offset + 4 * featureStride);
+            if (objectness < confThreshold) {
+                continue;
+            }
+            float bestClass = 1.0f;
+            if (numFeatures > 5) {
+                bestClass = 0.0f;
+                for (int c = 5; c < numFeatures; c++) {
+                    bestClass = Math.max(bestClass, output.get(offset + c * featureStride));
+                }
+            }
+            double confidence = objectness * bestClass;
+            if (confidence < confThreshold) {
+                continue;
+            }
+            float cx = output.get(offset);
+            float cy = output.get(offset + featureStride);
+            float w = output.get(offset + 2 * featureStride);
+            float h = output.get(offset + 3 * featureStride);
+            YoloOnnxService.Detection detection = letterbox.toDetection(
+                    cx - w / 2.0, cy - h / 2.0, cx + w / 2.0, cy + h / 2.0, confidence);
+            if (detection != null) {
+                detections.add(detection);
+            }
+        }
+        return detections;
+    }
+}
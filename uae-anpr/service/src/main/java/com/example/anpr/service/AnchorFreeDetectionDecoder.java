@@ -0,0 +1,102 @@
+package com.example.anpr.service;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes objectness-free heads (YOLOv8, YOLO11) where each box carries
+ * {@code [cx, cy, w, h, class scores...]} and confidence is the best class
+ * score. These models are exported channels first ({@code [1, 4 + C, N]}), so
+ * the class scores of all boxes lie in contiguous rows: they are scanned row by
+ * row, and box coordinates are only read for the few boxes that pass.
+ */
+final class AnchorFreeDetectionDecoder implements DetectionDecoder {
+
+    private final int numFeatures;
+    private final boolean channelsFirst;
+
+    AnchorFreeDetectionDecoder(int numFeatures, boolean channelsFirst) {
+        if (numFeatures < 5) {
+            throw new IllegalArgumentException("Anchor-free output needs at least 5 features, got " + numFeatures);
+        }
+        this.numFeatures = numFeatures;
+        this.channelsFirst = channelsFirst;
+    }
+
+    @Override
+    public String name() {
+        return "anchor-free" + (channelsFirst ? "" : " (channels last)");
+    }
+
+    @Override
+    public boolean requiresNms() {
+        return true;
+    }
+
+    @Override
+    public List<YoloOnnxService.Detection> decode(FloatBuffer output, Letterbox letterbox, double confThreshold) {
+        int numBoxes = output.remaining() / numFeatures;
+        if (channelsFirst) {
+            return decodeChannelsFirst(output, output.position(), numBoxes, letterbox, confThreshold);
+        }
+        List<YoloOnnxService.Detection> detections = new ArrayList<>();
+        int base = output.position();
+        for (int i = 0; i < numBoxes; i++) {
+            int offset = base + i * numFeatures;
+            float best = output.get(offset + 4);
+            for (int c = 5; c < numFeatures; c++) {
+                best = Math.max(best, output.get(offset + c));
+            }
+            if (best >= confThreshold) {
+                add(detections, letterbox, output.get(offset), output.get(offset + 1),
+                        output.get(offset + 2), output.get(offset + 3), best);
+            }
+        }
+        return detections;
+    }
+
+    private List<YoloOnnxService.Detection> decodeChannelsFirst(FloatBuffer output, int base, int numBoxes,
+                                                                Letterbox letterbox, double confThreshold) {
+        List<YoloOnnxService.Detection> detections = new ArrayList<>();
+        int scores = base + 4 * numBoxes;
+        if (numFeatures == 5) {
+            // Single class: one contiguous score row.
+            for (int i = 0; i < numBoxes; i++) {
+                float score = output.get(scores + i);
+                if (score >= confThreshold) {
+                    addChannelsFirst(detections, output, base, numBoxes, i, letterbox, score);
+                }
+            }
+            return detections;
+        }
+        float[] best = new float[numBoxes];
+        for (int c = 4; c < numFeatures; c++) {
+            int row = base + c * numBoxes;
+            for (int i = 0; i < numBoxes; i++) {
+                best[i] = Math.max(best[i], output.get(row + i));
+            }
+        }
+        for (int i = 0; i < numBoxes; i++) {
+            if (best[i] >= confThreshold) {
+                addChannelsFirst(detections, output, base, numBoxes, i, letterbox, best[i]);
+            }
+        }
+        return detections;
+    }
+
+    private static void addChannelsFirst(List<YoloOnnxService.Detection> detections, FloatBuffer output, int base,
+                                         int numBoxes, int box, Letterbox letterbox, float score) {
+        add(detections, letterbox, output.get(base + box), output.get(base + numBoxes + box),
+                output.get(base + 2 * numBoxes + box), output.get(base + 3 * numBoxes + box), score);
+    }
+
+    private static void add(List<YoloOnnxService.Detection> detections, Letterbox letterbox,
+                            float cx, float cy, float w, float h, double confidence) {
+        YoloOnnxService.Detection detection = letterbox.toDetection(
+                cx - w / 2.0, cy - h / 2.0, cx + w / 2.0, cy + h / 2.0, confidence);
+        if (detection != null) {
+            detections.add(detection);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.CameraRoiStatus;
+import com.example.anpr.util.RoiHeatMap;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Learns, per fixed camera, the part of the frame where plates actually
+ * appear and crops frames to it before letterboxing, so the detector spends
+ * its input resolution on the lane instead of sky and sidewalk. Every
+ * detection feeds a {@link RoiHeatMap}; once {@code minSamples} plates have
+ * been seen and the learned region is clearly smaller than the frame, frames
+ * are cropped. Every {@code fullFrameInterval}-th frame still runs on the full
+ * frame; a plate found outside the region there widens the region until the
+ * heat map next decays. At most {@code maxCameras} cameras are learned, and a
+ * camera id whose file name collides with another camera's is ignored. Models
+ * are saved as JSON under {@code anpr.roi.directory} and survive restarts.
+ */
+@Service
+public class CameraRoiService {
+
+    private static final Logger log = LoggerFactory.getLogger(CameraRoiService.class);
+
+    /**
+     * Smoothing factor of the detector time averages.
+     */
+    private static final double EWMA_ALPHA = 0.05;
+
+    private final AnprProperties.Roi properties;
+    private final int imgsz;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Map<String, CameraModel> cameras = new ConcurrentHashMap<>();
+    private final Map<String, String> fileOwners = new ConcurrentHashMap<>();
+    private final AtomicBoolean capReported = new AtomicBoolean();
+    private ScheduledExecutorService saver;
+
+    public CameraRoiService(AnprProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties.getRoi();
+        this.imgsz = properties.getImgsz();
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(this.properties.getDirectory()).toAbsolutePath();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(".json")).toList()) {
+                try {
+                    Snapshot snapshot = objectMapper.readValue(file.toFile(), Snapshot.class);
+                    if (!file.getFileName().toString().equals(fileName(snapshot.cameraId()))
+                            || fileOwners.putIfAbsent(fileName(snapshot.cameraId()), snapshot.cameraId()) != null) {
+                        log.warn("Ignoring ROI model {} of camera {}: file name does not match", file, snapshot.cameraId());
+                        continue;
+                    }
+                    cameras.put(snapshot.cameraId(), CameraModel.restore(snapshot, properties.getDecayLimit()));
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("Ignoring unreadable ROI model {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (!cameras.isEmpty()) {
+            log.info("Loaded ROI models for {} camera(s) from {}", cameras.size(), directory);
+        }
+        saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "roi-saver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = Math.max(1, properties.getSaveIntervalSec());
+        saver.scheduleWithFixedDelay(this::saveAll, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (saver != null) {
+            saver.shutdownNow();
+            saveAll();
+        }
+    }
+
+    /**
+     * Region to crop the next frame of {@code cameraId} to, or {@code null} to
+     * run on the full frame (unknown camera, model not confident yet, or a
+     * periodic full-frame check).
+     */
+    public RoiHeatMap.Region plan(String cameraId, int width, int height) {
+        if (!properties.isEnabled() || cameraId == null) {
+            return null;
+        }
+        CameraModel model = cameras.get(cameraId);
+        return model != null ? model.plan(width, height, properties) : null;
+    }
+
+    /**
+     * Feeds the detections of one frame (in full-frame coordinates) back into
+     * the camera's model. {@code crop} is what {@link #plan} returned for the
+     * frame and {@code detectorNanos} the time spent in detection.
+     */
+    public void observe(String cameraId, int width, int height, RoiHeatMap.Region crop,
+                        List<YoloOnnxService.Detection> detections, long detectorNanos) {
+        if (!properties.isEnabled() || cameraId == null) {
+            return;
+        }
+        CameraModel model = cameras.get(cameraId);
+        if (model == null) {
+            model = register(cameraId, width, height);
+            if (model == null) {
+                return;
+            }
+        }
+        model.observe(width, height, crop, detections, detectorNanos, properties);
+    }
+
+    /**
+     * Starts a model for a new camera, or returns {@code null} if the camera
+     * limit is reached or the id maps to another camera's file.
+     */
+    private synchronized CameraModel register(String cameraId, int width, int height) {
+        CameraModel existing = cameras.get(cameraId);
+        if (existing != null) {
+            return existing;
+        }
+        if (cameras.size() >= properties.getMaxCameras()) {
+            if (capReported.compareAndSet(false, true)) {
+                log.warn("ROI camera limit of {} reached, not learning camera {} or any further ones",
+                        properties.getMaxCameras(), cameraId);
+            }
+            return null;
+        }
+        String owner = fileOwners.putIfAbsent(fileName(cameraId), cameraId);
+        if (owner != null && !owner.equals(cameraId)) {
+            log.warn("Not learning ROI of camera {}: its model file would collide with camera {}", cameraId, owner);
+            return null;
+        }
+        CameraModel model = new CameraModel(cameraId,
+                new RoiHeatMap(properties.getGridSize(), width, height, properties.getDecayLimit()), null);
+        cameras.put(cameraId, model);
+        return model;
+    }
+
+    public List<CameraRoiStatus> status() {
+        List<CameraRoiStatus> status = new ArrayList<>();
+        cameras.values().forEach(model -> status.add(model.status(properties, imgsz)));
+        status.sort((a, b) -> a.getCameraId().compareTo(b.getCameraId()));
+        return status;
+    }
+
+    /**
+     * Forgets what was learned for {@code cameraId}, e.g. after the camera was
+     * moved.
+     */
+    public synchronized boolean reset(String cameraId) {
+        CameraModel removed = cameras.remove(cameraId);
+        if (removed == null) {
+            return false;
+        }
+        fileOwners.remove(fileName(cameraId), cameraId);
+        capReported.set(false);
+        try {
+            Files.deleteIfExists(file(cameraId));
+        } catch (IOException e) {
+            log.warn("Failed to delete ROI model of {}", cameraId, e);
+        }
+        log.info("ROI model of camera {} reset", cameraId);
+        return true;
+    }
+
+    private void saveAll() {
+        for (CameraModel model : cameras.values()) {
+            Snapshot snapshot = model.snapshotIfDirty();
+            if (snapshot == null) {
+                continue;
+            }
+            Path target = file(snapshot.cameraId());
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                objectMapper.writeValue(temp.toFile(), snapshot);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                model.markDirty();
+                log.warn("Failed to save ROI model of {}", snapshot.cameraId(), e);
+            }
+        }
+    }
+
+    private Path file(String cameraId) {
+        return directory.resolve(fileName(cameraId));
+    }
+
+    private static String fileName(String cameraId) {
+        return cameraId.replaceAll("[^A-Za-z0-9._-]", "_") + ".json";
+    }
+
+    private static double ewma(double average, long sample) {
+        return average == 0 ? sample : average + EWMA_ALPHA * (sample - average);
+    }
+
+    record Snapshot(String cameraId, int gridSize, int width, int height, long samples, int[] cells,
+                    RoiHeatMap.Region missed) {
+    }
+
+    private static final class CameraModel {
+
+        private final String cameraId;
+        private RoiHeatMap heatMap;
+        private RoiHeatMap.Region missed;
+        private RoiHeatMap.Region region;
+        private long frames;
+        private long croppedFrames;
+        private long fullFrameChecks;
+        private long misses;
+        private double croppedNanos;
+        private double fullNanos;
+        private boolean dirty;
+
+        private CameraModel(String cameraId, RoiHeatMap heatMap, RoiHeatMap.Region missed) {
+            this.cameraId = cameraId;
+            this.heatMap = heatMap;
+            this.missed = missed;
+        }
+
+        private static CameraModel restore(Snapshot snapshot, int decayLimit) {
+            return new CameraModel(snapshot.cameraId(), RoiHeatMap.restore(snapshot.gridSize(), snapshot.width(),
+                    snapshot.height(), decayLimit, snapshot.samples(), snapshot.cells()), snapshot.missed());
+        }
+
+        private synchronized RoiHeatMap.Region plan(int width, int height, AnprProperties.Roi properties) {
+            if (width != heatMap.width() || height != heatMap.height() || heatMap.samples() < properties.getMinSamples()) {
+                return null;
+            }
+            if (properties.getFullFrameInterval() > 0 && ++frames % properties.getFullFrameInterval() == 0) {
+                return null;
+            }
+            RoiHeatMap.Region active = active(properties);
+            return active != null && active.area() <= properties.getMaxAreaFraction() * width * height ? active : null;
+        }
+
+        private synchronized void observe(int width, int height, RoiHeatMap.Region crop,
+                                          List<YoloOnnxService.Detection> detections, long detectorNanos,
+                                          AnprProperties.Roi properties) {
+            if (width != heatMap.width() || height != heatMap.height()) {
+                log.info("Camera {} frame size changed to {}x{}, relearning ROI", cameraId, width, height);
+                heatMap = new RoiHeatMap(properties.getGridSize(), width, height, properties.getDecayLimit());
+                missed = null;
+                region = null;
+            }
+            RoiHeatMap.Region before = crop == null && heatMap.samples() >= properties.getMinSamples()
+                    ? active(properties) : null;
+            for (YoloOnnxService.Detection detection : detections) {
+                RoiHeatMap.Region box = new RoiHeatMap.Region((int) Math.round(detection.x()),
+                        (int) Math.round(detection.y()), (int) Math.round(detection.width()),
+                        (int) Math.round(detection.height()));
+                if (heatMap.add(box)) {
+                    // Misses fade with the rest of the history; plates still
+                    // showing up there are either in the heat map or missed again.
+                    missed = null;
+                    region = null;
+                }
+                if (before != null && !before.contains(box)) {
+                    misses++;
+                    missed = box.union(missed);
+                    log.info("Camera {} plate at {} outside learned ROI {}, widening it", cameraId, box, before);
+                }
+            }
+            if (!detections.isEmpty()) {
+                region = null;
+                dirty = true;
+            }
+            if (crop != null) {
+                croppedFrames++;
+                croppedNanos = ewma(croppedNanos, detectorNanos);
+            } else {
+                if (before != null) {
+                    fullFrameChecks++;
+                }
+                fullNanos = ewma(fullNanos, detectorNanos);
+            }
+        }
+
+        private RoiHeatMap.Region active(AnprProperties.Roi properties) {
+            if (region == null) {
+                RoiHeatMap.Region learned = heatMap.region(properties.getTrim(), properties.getMargin());
+                region = learned != null ? learned.union(missed).clip(heatMap.width(), heatMap.height()) : null;
+            }
+            return region;
+        }
+
+        private synchronized Snapshot snapshotIfDirty() {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            return new Snapshot(cameraId, heatMap.gridSize(), heatMap.width(), heatMap.height(),
+                    heatMap.samples(), heatMap.cells(), missed);
+        }
+
+        private synchronized void markDirty() {
+            dirty = true;
+        }
+
+        private synchronized CameraRoiStatus status(AnprProperties.Roi properties, int imgsz) {
+            CameraRoiStatus status = new CameraRoiStatus();
+            status.setCameraId(cameraId);
+            status.setFrameWidth(heatMap.width());
+            status.setFrameHeight(heatMap.height());
+            status.setSamples(heatMap.samples());
+            status.setCroppedFrames(croppedFrames);
+            status.setFullFrameChecks(fullFrameChecks);
+            status.setMisses(misses);
+            RoiHeatMap.Region active = heatMap.samples() >= properties.getMinSamples() ? active(properties) : null;
+            double frameArea = (double) heatMap.width() * heatMap.height();
+            if (active != null) {
+                status.setRoi(active);
+                status.setAreaFraction(active.area() / frameArea);
+                status.setActive(active.area() <= properties.getMaxAreaFraction() * frameArea);
+                // Letterbox scale on the crop relative to the full frame: how many more
+                // detector input pixels each plate pixel gets.
+                double full = Math.min(imgsz / (double) heatMap.width(), imgsz / (double) heatMap.height());
+                double cropped = Math.min(imgsz / (double) active.width(), imgsz / (double) active.height());
+                status.setResolutionGain(cropped / full);
+            }
+            if (croppedNanos > 0) {
+                status.setCroppedDetectorMs(croppedNanos / 1_000_000.0);
+            }
+            if (fullNanos > 0) {
+                status.setFullFrameDetectorMs(fullNanos / 1_000_000.0);
+            }
+            if (croppedNanos > 0 && fullNanos > 0) {
+                status.setDetectorSpeedup(fullNanos / croppedNanos);
+            }
+            return status;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.anpr.service;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * Turns the detector's output tensor into plate detections in original image
+ * coordinates. One implementation exists per output layout; the matching one
+ * is chosen once from the model's output metadata by {@link DetectionDecoders}
+ * so the per-frame loop carries no layout checks.
+ */
+public interface DetectionDecoder {
+
+    String name();
+
+    /**
+     * Whether boxes returned by {@link #decode} still need non-maximum
+     * suppression. End-to-end models already ran it inside the graph.
+     */
+    boolean requiresNms();
+
+    List<YoloOnnxService.Detection> decode(FloatBuffer output, Letterbox letterbox, double confThreshold);
+
+    /**
+     * Maps letterboxed model coordinates back onto the original frame.
+     */
+    record Letterbox(double scale, int padX, int padY, int width, int height) {
+
+        /**
+         * Converts a corner-form box in model input pixels into a detection
+         * clipped to the frame, or {@code null} when nothing of it remains.
+         */
+        public YoloOnnxService.Detection toDetection(double x1, double y1, double x2, double y2, double confidence) {
+            double fx1 = (x1 - padX) / scale;
+            double fy1 = (y1 - padY) / scale;
+            double fx2 = (x2 - padX) / scale;
+            double fy2 = (y2 - padY) / scale;
+            int x = (int) Math.round(fx1);
+            int y = (int) Math.round(fy1);
+            int right = x + (int) Math.round(fx2 - fx1);
+            int bottom = y + (int) Math.round(fy2 - fy1);
+            int cx = Math.max(x, 0);
+            int cy = Math.max(y, 0);
+            int w = Math.min(right, width) - cx;
+            int h = Math.min(bottom, height) - cy;
+            if (w <= 0 || h <= 0) {
+                return null;
+            }
+            return new YoloOnnxService.Detection(cx, cy, w, h, confidence);
+        }
+    }
+}
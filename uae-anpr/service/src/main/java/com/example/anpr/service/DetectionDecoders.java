@@ -0,0 +1,100 @@
+package com.example.anpr.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks the {@link DetectionDecoder} for a model from its output shape and
+ * the Ultralytics export metadata ({@code names}, {@code end2end}).
+ */
+final class DetectionDecoders {
+
+    static final String AUTO = "auto";
+    static final String ANCHOR = "anchor";
+    static final String ANCHOR_FREE = "anchor-free";
+    static final String END_TO_END = "end-to-end";
+
+    /**
+     * Raw heads emit thousands of candidate boxes; in-graph NMS outputs are
+     * capped at a few hundred.
+     */
+    static final long MAX_END_TO_END_BOXES = 1000;
+
+    private static final Pattern CLASS_ENTRY = Pattern.compile("\\d+\\s*:");
+
+    private DetectionDecoders() {
+    }
+
+    /**
+     * @param shape    output shape as reported by ONNX Runtime; dynamic axes are negative
+     * @param metadata custom model metadata, may be empty
+     * @param mode     {@code auto} or one of the decoder names to force a layout
+     */
+    static DetectionDecoder select(long[] shape, Map<String, String> metadata, String mode) {
+        if (shape.length < 2 || shape.length > 3 || (shape.length == 3 && shape[0] > 1)) {
+            throw new IllegalStateException("Unexpected detector output shape " + Arrays.toString(shape));
+        }
+        long first = shape[shape.length - 2];
+        long second = shape[shape.length - 1];
+        // The feature axis is the short one; a dynamic axis can only be the box axis.
+        boolean channelsFirst = first > 0 && (second <= 0 || first < second);
+        long features = channelsFirst ? first : second;
+        long boxes = channelsFirst ? second : first;
+        if (features <= 0) {
+            throw new IllegalStateException("Detector output has no fixed feature axis " + Arrays.toString(shape));
+        }
+        String resolved = mode == null || mode.isBlank() ? AUTO : mode.trim().toLowerCase(Locale.ROOT);
+        if (AUTO.equals(resolved)) {
+            resolved = detect(features, boxes, channelsFirst, metadata);
+        }
+        return switch (resolved) {
+            case ANCHOR -> new AnchorDetectionDecoder((int) features, channelsFirst);
+            case ANCHOR_FREE -> new AnchorFreeDetectionDecoder((int) features, channelsFirst);
+            case END_TO_END -> {
+                if (channelsFirst) {
+                    throw new IllegalStateException("End-to-end output must be [N, 6], got " + Arrays.toString(shape));
+                }
+                yield new EndToEndDetectionDecoder((int) features);
+            }
+            default -> throw new IllegalArgumentException("Unknown detector decoder '" + mode + "'");
+        };
+    }
+
+    private static String detect(long features, long boxes, boolean channelsFirst, Map<String, String> metadata) {
+        if ("true".equalsIgnoreCase(metadata.getOrDefault("end2end", ""))) {
+            return END_TO_END;
+        }
+        int classes = classCount(metadata.get("names"));
+        if (classes > 0) {
+            if (features == 4 + classes) {
+                return ANCHOR_FREE;
+            }
+            if (features == 5 + classes && channelsFirst) {
+                return ANCHOR;
+            }
+        }
+        if (!channelsFirst && features == 6 && boxes > 0 && boxes <= MAX_END_TO_END_BOXES) {
+            return END_TO_END;
+        }
+        if (classes > 0 && features == 5 + classes) {
+            return ANCHOR;
+        }
+        // Ultralytics v8+ heads are exported channels first, YOLOv5 heads channels last.
+        return channelsFirst ? ANCHOR_FREE : ANCHOR;
+    }
+
+    static int classCount(String names) {
+        if (names == null) {
+            return 0;
+        }
+        Matcher matcher = CLASS_ENTRY.matcher(names);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.FileResult;
+import com.example.anpr.exception.PlateNotFoundException;
+import com.example.anpr.exception.PlateProcessingException;
+import com.example.anpr.util.ImageUtils;
+import com.example.anpr.util.RollingJsonlWriter;
+import com.example.anpr.util.StageTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Picks up image files dropped into a folder, recognises them and appends the
+ * outcome to rolling JSONL files. Files are memory-mapped and decoded straight
+ * from the mapping. A file is only picked up once its size has stopped
+ * changing for {@code settleMs}, and afterwards it is moved to the processed
+ * (or failed) folder, so whatever is still in the inbox after a restart is
+ * exactly the work that remains.
+ */
+@Service
+public class DirectoryWatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryWatchService.class);
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "bmp", "webp", "tif", "tiff");
+
+    private final AnprProperties.Watch properties;
+    private final PlateService plateService;
+    private final ObjectMapper objectMapper;
+    private final Path inputDir;
+    private final Path processedDir;
+    private final Path failedDir;
+    private final Semaphore permits;
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<Path, Long> candidates = new HashMap<>();
+    private ExecutorService workers;
+    private RollingJsonlWriter output;
+    private WatchService watchService;
+    private Thread watcher;
+
+    public DirectoryWatchService(AnprProperties properties, PlateService plateService, ObjectMapper objectMapper) {
+        this.properties = properties.getWatch();
+        this.plateService = plateService;
+        this.objectMapper = objectMapper;
+        this.inputDir = Path.of(this.properties.getInputDir()).toAbsolutePath().normalize();
+        this.processedDir = Path.of(this.properties.getProcessedDir()).toAbsolutePath().normalize();
+        this.failedDir = Path.of(this.properties.getFailedDir()).toAbsolutePath().normalize();
+        this.permits = new Semaphore(Math.max(1, this.properties.getParallelism()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(inputDir);
+        Files.createDirectories(processedDir);
+        Files.createDirectories(failedDir);
+        Path outputDir = Files.createDirectories(Path.of(properties.getOutputDir()).toAbsolutePath());
+        output = new RollingJsonlWriter(outputDir, "plates", properties.getMaxOutputFileMb() * 1024L * 1024L, objectMapper);
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "watch-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchService = FileSystems.getDefault().newWatchService();
+        inputDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watcher = new Thread(this::watchLoop, "directory-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching {} for images, writing results to {}", inputDir, outputDir);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (watcher == null) {
+            return;
+        }
+        watchService.close();
+        watcher.interrupt();
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+        output.close();
+    }
+
+    private void watchLoop() {
+        // Files left over from before a restart, or written while the service was down.
+        try (Stream<Path> existing = Files.list(inputDir)) {
+            existing.forEach(this::consider);
+        } catch (IOException e) {
+            log.error("Failed to scan {}", inputDir, e);
+        }
+        long tick = Math.max(50, properties.getSettleMs() / 2);
+        while (true) {
+            try {
+                WatchKey key = watchService.poll(tick, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents().forEach(event -> {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            rescan();
+                        } else {
+                            consider(inputDir.resolve((Path) event.context()));
+                        }
+                    });
+                    key.reset();
+                }
+                dispatchSettled();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+        }
+    }
+
+    private void rescan() {
+        try (Stream<Path> existing = Files.list(inputDir)) {
+            existing.forEach(this::consider);
+        } catch (IOException e) {
+            log.warn("Failed to rescan {}", inputDir, e);
+        }
+    }
+
+    private void consider(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String extension = dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        if (IMAGE_EXTENSIONS.contains(extension) && !inFlight.contains(path)) {
+            candidates.putIfAbsent(path, -1L);
+        }
+    }
+
+    /**
+     * Hands files whose size has not changed since the previous tick and which
+     * were last modified more than {@code settleMs} ago to the workers. Blocks
+     * while all workers are busy, which throttles intake to the pipeline.
+     */
+    private void dispatchSettled() throws InterruptedException {
+        long settledBefore = System.currentTimeMillis() - properties.getSettleMs();
+        Iterator<Map.Entry<Path, Long>> iterator = candidates.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> candidate = iterator.next();
+            Path path = candidate.getKey();
+            long size;
+            long modified;
+            try {
+                size = Files.size(path);
+                modified = Files.getLastModifiedTime(path).toMillis();
+            } catch (IOException e) {
+                iterator.remove();
+                continue;
+            }
+            if (size != candidate.getValue() || modified > settledBefore) {
+                candidate.setValue(size);
+                continue;
+            }
+            iterator.remove();
+            permits.acquire();
+            inFlight.add(path);
+            workers.execute(() -> {
+                try {
+                    process(path);
+                } finally {
+                    inFlight.remove(path);
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    private void process(Path path) {
+        FileResult result = new FileResult();
+        result.setFile(path.getFileName().toString());
+        boolean failed = false;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Mat image = ImageUtils.readImage(mapped);
+            try {
+                if (image == null || image.empty()) {
+                    throw new PlateProcessingException("Unable to decode input image", null);
+                }
+                result.setResults(plateService.recognize(image, new StageTimings(LaneScheduler.BULK)).getResults());
+            } finally {
+                if (image != null) {
+                    image.close();
+                }
+            }
+        } catch (PlateNotFoundException e) {
+            result.setResults(List.of());
+        } catch (IOException | RuntimeException e) {
+            result.setError(e.getMessage());
+            failed = true;
+        }
+        result.setProcessedAt(Instant.now().toString());
+        try {
+            output.write(result);
+            Path target = (failed ? failedDir : processedDir).resolve(path.getFileName());
+            Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Failed to record result for {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.anpr.service;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes models with NMS built into the graph (YOLOv10, YOLO26 and
+ * {@code nms=True} exports). The output holds at most a few hundred final
+ * boxes as {@code [x1, y1, x2, y2, score, class]} rows in model input pixels,
+ * so decoding is a single short scan and Java-side NMS is skipped.
+ */
+final class EndToEndDetectionDecoder implements DetectionDecoder {
+
+    private final int numFeatures;
+
+    EndToEndDetectionDecoder(int numFeatures) {
+        if (numFeatures < 5) {
+            throw new IllegalArgumentException("End-to-end output needs at least 5 features, got " + numFeatures);
+        }
+        this.numFeatures = numFeatures;
+    }
+
+    @Override
+    public String name() {
+        return "end-to-end";
+    }
+
+    @Override
+    public boolean requiresNms() {
+        return false;
+    }
+
+    @Override
+    public List<YoloOnnxService.Detection> decode(FloatBuffer output, Letterbox letterbox, double confThreshold) {
+        int base = output.position();
+        int numBoxes = output.remaining() / numFeatures;
+        List<YoloOnnxService.Detection> detections = new ArrayList<>();
+        for (int i = 0; i < numBoxes; i++) {
+            int offset = base + i * numFeatures;
+            float score = output.get(offset + 4);
+            if (score < confThreshold) {
+                continue;
+            }
+            YoloOnnxService.Detection detection = letterbox.toDetection(output.get(offset), output.get(offset + 1),
+                    output.get(offset + 2), output.get(offset + 3), score);
+            if (detection != null) {
+                detections.add(detection);
+            }
+        }
+        return detections;
+    }
+}
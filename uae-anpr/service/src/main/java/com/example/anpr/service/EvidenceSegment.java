@@ -0,0 +1,207 @@
+package com.example.anpr.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One evidence segment: a data file of concatenated JPEG blobs plus an index
+ * file of fixed-size entries
+ * {@code [long evidenceId][long timestamp][long cropOffset][int cropLength][long frameOffset][int frameLength]}.
+ * Evidence ids grow monotonically, so entries are sorted and looked up by
+ * binary search. Several plates of one frame share the same frame blob.
+ */
+final class EvidenceSegment {
+
+    static final int ENTRY_BYTES = 40;
+
+    private final long id;
+    private final Path dataPath;
+    private final Path indexPath;
+    private FileChannel data;
+    private FileChannel index;
+    private long dataSize;
+    private long entries;
+    private long firstEvidenceId = -1;
+    private long lastEvidenceId = -1;
+
+    private EvidenceSegment(long id, Path dataPath) {
+        this.id = id;
+        this.dataPath = dataPath;
+        this.indexPath = dataPath.resolveSibling(dataPath.getFileName().toString().replace(".dat", ".idx"));
+    }
+
+    static Path dataPath(Path directory, long id) {
+        return directory.resolve(String.format("evidence-%012d.dat", id));
+    }
+
+    static List<Path> list(Path directory) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (var stream = Files.list(directory)) {
+            stream.filter(path -> path.getFileName().toString().matches("evidence-\\d{12}\\.dat"))
+                    .sorted()
+                    .forEach(paths::add);
+        }
+        return paths;
+    }
+
+    static long idOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring("evidence-".length(), name.length() - ".dat".length()));
+    }
+
+    /**
+     * Opens (or creates) a segment. When {@code writable}, channels stay open for
+     * appending and a torn trailing index entry from a crash is cut off.
+     */
+    static EvidenceSegment open(Path dataPath, boolean writable) throws IOException {
+        EvidenceSegment segment = new EvidenceSegment(idOf(dataPath), dataPath);
+        if (writable) {
+            segment.data = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment.index = FileChannel.open(segment.indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment.index.truncate(segment.index.size() / ENTRY_BYTES * ENTRY_BYTES);
+            segment.dataSize = segment.data.size();
+            segment.entries = segment.index.size() / ENTRY_BYTES;
+        } else {
+            segment.dataSize = Files.size(dataPath);
+            segment.entries = Files.exists(segment.indexPath) ? Files.size(segment.indexPath) / ENTRY_BYTES : 0;
+        }
+        if (segment.entries > 0) {
+            segment.scanIdRange();
+        }
+        return segment;
+    }
+
+    /**
+     * Recovers the id range from every entry rather than the first and last
+     * one, so an index written out of order can never make ids be reused.
+     */
+    private void scanIdRange() throws IOException {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, entries * ENTRY_BYTES);
+            for (long entry = 0; entry < entries; entry++) {
+                long evidenceId = mapped.getLong((int) (entry * ENTRY_BYTES));
+                min = Math.min(min, evidenceId);
+                max = Math.max(max, evidenceId);
+            }
+        }
+        firstEvidenceId = min;
+        lastEvidenceId = max;
+    }
+
+    long id() {
+        return id;
+    }
+
+    synchronized long dataSize() {
+        return dataSize;
+    }
+
+    synchronized long firstEvidenceId() {
+        return firstEvidenceId;
+    }
+
+    synchronized long lastEvidenceId() {
+        return lastEvidenceId;
+    }
+
+    /**
+     * Appends a blob to the data file and returns its offset.
+     */
+    synchronized long writeBlob(byte[] bytes) throws IOException {
+        long offset = dataSize;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            dataSize += data.write(buffer, dataSize);
+        }
+        return offset;
+    }
+
+    synchronized void writeEntry(long evidenceId, long timestamp, long cropOffset, int cropLength,
+                                 long frameOffset, int frameLength) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+        entry.putLong(evidenceId).putLong(timestamp).putLong(cropOffset).putInt(cropLength)
+                .putLong(frameOffset).putInt(frameLength).flip();
+        long position = entries * ENTRY_BYTES;
+        while (entry.hasRemaining()) {
+            position += index.write(entry, position);
+        }
+        entries++;
+        if (firstEvidenceId < 0) {
+            firstEvidenceId = evidenceId;
+        }
+        lastEvidenceId = evidenceId;
+    }
+
+    synchronized void force() throws IOException {
+        if (data != null) {
+            data.force(false);
+            index.force(false);
+        }
+    }
+
+    synchronized void close() throws IOException {
+        if (data != null) {
+            force();
+            data.close();
+            index.close();
+            data = null;
+            index = null;
+        }
+    }
+
+    /**
+     * Returns the crop or frame JPEG of {@code evidenceId}, or {@code null} when
+     * this segment does not hold it.
+     */
+    byte[] read(long evidenceId, boolean crop) throws IOException {
+        long low = 0;
+        long high;
+        synchronized (this) {
+            high = entries - 1;
+        }
+        ByteBuffer entry = null;
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                ByteBuffer candidate = readEntry(channel, mid);
+                long candidateId = candidate.getLong(0);
+                if (candidateId < evidenceId) {
+                    low = mid + 1;
+                } else if (candidateId > evidenceId) {
+                    high = mid - 1;
+                } else {
+                    entry = candidate;
+                    break;
+                }
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        long offset = crop ? entry.getLong(16) : entry.getLong(28);
+        int length = crop ? entry.getInt(24) : entry.getInt(36);
+        ByteBuffer blob = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+            while (blob.hasRemaining() && channel.read(blob, offset + blob.position()) >= 0) {
+                // keep reading until the blob is complete
+            }
+        }
+        return blob.array();
+    }
+
+    private static ByteBuffer readEntry(FileChannel channel, long entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES);
+        while (buffer.hasRemaining() && channel.read(buffer, entry * ENTRY_BYTES + buffer.position()) >= 0) {
+            // keep reading until the entry is complete
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.EvidenceStatus;
+import com.example.anpr.dto.PlateResult;
+import com.example.anpr.util.ImageUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Archives the plate crop and a downscaled copy of the frame for every read.
+ * The request thread only clones the crops, downscales the frame and enqueues
+ * them; JPEG encoding, disk writes and fsyncs happen on a single background
+ * writer that packs the images into large {@link EvidenceSegment} files. When
+ * the queue is full the configured drop policy decides which evidence is lost,
+ * so a slow disk never shows up in request latency.
+ *
+ * <p>Evidence ids are reserved when a frame is enqueued, under the same lock
+ * as the enqueue, so the writer always sees them in increasing order and every
+ * segment index stays sorted. Ids reach the caller before the evidence is on
+ * disk, so they are taken from blocks of {@link #ID_BLOCK} whose upper bound is
+ * persisted in {@code evidence.reserved} first; after a crash the archive
+ * continues above that bound and never hands out an id twice.
+ */
+@Service
+public class EvidenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(EvidenceService.class);
+
+    private static final int MAX_BATCH = 64;
+
+    static final long ID_BLOCK = 4096;
+
+    private static final String RESERVED_FILE = "evidence.reserved";
+
+    private final AnprProperties.Evidence properties;
+    private final Path directory;
+    private final BlockingQueue<FrameEvidence> queue;
+    private final Object enqueueLock = new Object();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<EvidenceSegment> segments = new ArrayList<>();
+    private long nextEvidenceId;
+    private long reservedUntil;
+    private volatile EvidenceSegment active;
+    private volatile boolean running;
+    private Thread writer;
+
+    public EvidenceService(AnprProperties properties) {
+        this.properties = properties.getEvidence();
+        this.directory = Path.of(this.properties.getDirectory()).toAbsolutePath();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, this.properties.getQueueCapacity()));
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Path> existing = EvidenceSegment.list(directory);
+        for (int i = 0; i < existing.size(); i++) {
+            segments.add(EvidenceSegment.open(existing.get(i), i == existing.size() - 1));
+        }
+        if (segments.isEmpty()) {
+            segments.add(EvidenceSegment.open(EvidenceSegment.dataPath(directory, 0), true));
+        }
+        active = segments.get(segments.size() - 1);
+        long lastId = -1;
+        for (EvidenceSegment segment : segments) {
+            lastId = Math.max(lastId, segment.lastEvidenceId());
+        }
+        long next;
+        synchronized (enqueueLock) {
+            // Ids of a reserved block may have been handed out without being written.
+            nextEvidenceId = Math.max(lastId + 1, readReserved());
+            reservedUntil = nextEvidenceId;
+            reserve();
+            next = nextEvidenceId;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "evidence-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Evidence archive opened at {} ({} segment(s), next id {})", directory, segments.size(), next);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            log.warn("Evidence writer still draining {} frame(s) after 10 s, leaving segment {} open",
+                    queue.size(), active.id());
+            return;
+        }
+        active.close();
+    }
+
+    /**
+     * Starts collecting evidence for one frame. Returns a no-op batch when the
+     * archive is disabled or, under {@code DROP_NEWEST}, already full, so the
+     * caller skips the copying work entirely.
+     */
+    public Batch begin(Mat frame) {
+        if (!running) {
+            return Batch.NONE;
+        }
+        if (properties.getDropPolicy() == AnprProperties.Evidence.DropPolicy.DROP_NEWEST && queue.remainingCapacity() == 0) {
+            dropped.incrementAndGet();
+            return Batch.NONE;
+        }
+        return new Batch(this, frame);
+    }
+
+    public Optional<byte[]> read(long evidenceId, boolean crop) throws IOException {
+        List<EvidenceSegment> snapshot;
+        synchronized (segments) {
+            snapshot = new ArrayList<>(segments);
+        }
+        for (int i = snapshot.size() - 1; i >= 0; i--) {
+            EvidenceSegment segment = snapshot.get(i);
+            long first = segment.firstEvidenceId();
+            if (first >= 0 && first <= evidenceId && evidenceId <= segment.lastEvidenceId()) {
+                return Optional.ofNullable(segment.read(evidenceId, crop));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public EvidenceStatus status() {
+        EvidenceStatus status = new EvidenceStatus();
+        status.setEnabled(properties.isEnabled());
+        status.setDropPolicy(properties.getDropPolicy().name());
+        status.setQueued(queue.size());
+        status.setWritten(written.get());
+        status.setDropped(dropped.get());
+        status.setSegment(active != null ? active.id() : -1);
+        return status;
+    }
+
+    /**
+     * Reserves consecutive evidence ids for the crops of {@code evidence} and
+     * queues it. Returns the first id, or -1 when the evidence was dropped.
+     */
+    private long enqueue(FrameEvidence evidence) {
+        FrameEvidence evicted = null;
+        long firstId = -1;
+        synchronized (enqueueLock) {
+            int count = evidence.crops().size();
+            if (nextEvidenceId + count > reservedUntil) {
+                try {
+                    reserve();
+                } catch (IOException e) {
+                    log.error("Failed to reserve evidence ids, dropping {} crop(s)", count, e);
+                    dropped.addAndGet(count);
+                    evidence.release();
+                    return -1;
+                }
+            }
+            evidence.assignIds(nextEvidenceId);
+            boolean accepted = queue.offer(evidence);
+            if (!accepted && properties.getDropPolicy() == AnprProperties.Evidence.DropPolicy.DROP_OLDEST) {
+                evicted = queue.poll();
+                accepted = queue.offer(evidence);
+            }
+            if (accepted) {
+                firstId = nextEvidenceId;
+                nextEvidenceId += count;
+            }
+        }
+        if (evicted != null) {
+            dropped.addAndGet(evicted.crops().size());
+            evicted.release();
+        }
+        if (firstId < 0) {
+            dropped.addAndGet(evidence.crops().size());
+            evidence.release();
+        }
+        return firstId;
+    }
+
+    /**
+     * Persists the end of the next id block. Must be called with
+     * {@code enqueueLock} held.
+     */
+    private void reserve() throws IOException {
+        long until = Math.max(reservedUntil, nextEvidenceId) + ID_BLOCK;
+        Path target = directory.resolve(RESERVED_FILE);
+        Path temp = directory.resolve(RESERVED_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(until).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        reservedUntil = until;
+    }
+
+    private long readReserved() throws IOException {
+        Path file = directory.resolve(RESERVED_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt evidence id reservation in " + file, e);
+        }
+    }
+
+    private void writeLoop() {
+        List<FrameEvidence> batch = new ArrayList<>(MAX_BATCH);
+        long lastSync = System.nanoTime();
+        long syncNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFsyncIntervalMs());
+        while (running || !queue.isEmpty()) {
+            try {
+                FrameEvidence first = queue.poll(properties.getFsyncIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    for (FrameEvidence evidence : batch) {
+                        writeOrDrop(evidence);
+                    }
+                }
+                if (System.nanoTime() - lastSync >= syncNanos) {
+                    active.force();
+                    lastSync = System.nanoTime();
+                }
+                if (active.dataSize() >= properties.getSegmentSizeMb() * 1024L * 1024L) {
+                    roll();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to sync or roll evidence segment", e);
+            } finally {
+                batch.forEach(FrameEvidence::release);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes one frame's evidence; crops that could not be written are counted
+     * as dropped and their ids logged, since the caller already has them.
+     */
+    private void writeOrDrop(FrameEvidence evidence) {
+        long before = written.get();
+        try {
+            write(evidence);
+        } catch (IOException | RuntimeException e) {
+            long lost = evidence.crops().size() - (written.get() - before);
+            dropped.addAndGet(lost);
+            log.error("Failed to write evidence ids {}-{}, {} crop(s) dropped", evidence.firstId(),
+                    evidence.firstId() + evidence.crops().size() - 1, lost, e);
+        }
+    }
+
+    private void write(FrameEvidence evidence) throws IOException {
+        byte[] frame = ImageUtils.encodeJpeg(evidence.frame(), properties.getJpegQuality());
+        long frameOffset = active.writeBlob(frame);
+        for (CropEvidence crop : evidence.crops()) {
+            byte[] jpeg = ImageUtils.encodeJpeg(crop.image(), properties.getJpegQuality());
+            long cropOffset = active.writeBlob(jpeg);
+            active.writeEntry(evidence.firstId() + crop.index(), evidence.timestamp(), cropOffset, jpeg.length, frameOffset, frame.length);
+            written.incrementAndGet();
+        }
+    }
+
+    private void roll() throws IOException {
+        EvidenceSegment next = EvidenceSegment.open(EvidenceSegment.dataPath(directory, active.id() + 1), true);
+        active.close();
+        synchronized (segments) {
+            segments.add(next);
+        }
+        active = next;
+        log.info("Evidence archive rolled to segment {}", next.id());
+    }
+
+    /**
+     * Evidence collected while one frame is processed.
+     */
+    public static final class Batch {
+
+        static final Batch NONE = new Batch(null, null);
+
+        private final EvidenceService owner;
+        private final Mat frame;
+        private final List<CropEvidence> crops = new ArrayList<>();
+        private final List<PlateResult> results = new ArrayList<>();
+
+        private Batch(EvidenceService owner, Mat frame) {
+            this.owner = owner;
+            this.frame = frame;
+        }
+
+        /**
+         * Copies {@code roi} (which the caller may release right after). The
+         * evidence id is set on {@code result} by {@link #submit()}.
+         */
+        public void add(Mat roi, PlateResult result) {
+            if (owner == null) {
+                return;
+            }
+            crops.add(new CropEvidence(crops.size(), roi.clone()));
+            results.add(result);
+        }
+
+        /**
+         * Hands the batch to the writer. The frame is downscaled here rather than
+         * cloned so that a full queue holds small images, not full frames.
+         */
+        public void submit() {
+            if (owner == null || crops.isEmpty()) {
+                return;
+            }
+            FrameEvidence evidence = new FrameEvidence(System.currentTimeMillis(),
+                    ImageUtils.downscale(frame, owner.properties.getFrameMaxWidth()), List.copyOf(crops));
+            crops.clear();
+            long firstId = owner.enqueue(evidence);
+            if (firstId >= 0) {
+                for (int i = 0; i < results.size(); i++) {
+                    results.get(i).setEvidenceId(firstId + i);
+                }
+            }
+        }
+
+        /**
+         * Releases copies that were never submitted, e.g. after a failure.
+         */
+        public void discard() {
+            crops.forEach(crop -> crop.image().close());
+            crops.clear();
+        }
+    }
+
+    private record CropEvidence(int index, Mat image) {
+    }
+
+    private static final class FrameEvidence {
+
+        private final long timestamp;
+        private final Mat frame;
+        private final List<CropEvidence> crops;
+        private long firstId = -1;
+        private boolean released;
+
+        private FrameEvidence(long timestamp, Mat frame, List<CropEvidence> crops) {
+            this.timestamp = timestamp;
+            this.frame = frame;
+            this.crops = crops;
+        }
+
+        long timestamp() {
+            return timestamp;
+        }
+
+        Mat frame() {
+            return frame;
+        }
+
+        List<CropEvidence> crops() {
+            return crops;
+        }
+
+        /**
+         * Set by {@link #enqueue} before the writer can see this evidence.
+         */
+        void assignIds(long firstId) {
+            this.firstId = firstId;
+        }
+
+        long firstId() {
+            return firstId;
+        }
+
+        synchronized void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            frame.close();
+            crops.forEach(crop -> crop.image().close());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.HotlistMatch;
+import com.example.anpr.dto.HotlistStatus;
+import com.example.anpr.dto.PlateResult;
+import com.example.anpr.util.HotlistIndex;
+import com.example.anpr.util.PlateKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches recognised plates against watchlists (stolen vehicles, unpaid fines,
+ * ...). The source is a CSV file of {@code emirate,letter,number,list} rows
+ * which is compiled into a memory-mapped {@link HotlistIndex} next to it. The
+ * file is polled for changes and a new index is built in the background and
+ * swapped in atomically, so lookups never wait for a reload.
+ */
+@Service
+public class HotlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotlistService.class);
+
+    private static final Pattern PLATE_TOKEN = Pattern.compile("\\b([A-Z]{1,2}|[A-Z0-9]*\\d[A-Z0-9]*)\\b");
+
+    private final AnprProperties.Hotlist properties;
+    private final Path source;
+    private final Path indexPath;
+    private volatile HotlistIndex index;
+    private volatile Instant loadedAt;
+    private ScheduledExecutorService reloader;
+
+    public HotlistService(AnprProperties properties) {
+        this.properties = properties.getHotlist();
+        this.source = Path.of(this.properties.getPath()).toAbsolutePath();
+        this.indexPath = source.resolveSibling(source.getFileName() + ".idx");
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        reload();
+        if (properties.getReloadIntervalSec() > 0) {
+            reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hotlist-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloader.scheduleWithFixedDelay(this::reloadIfChanged, properties.getReloadIntervalSec(),
+                    properties.getReloadIntervalSec(), TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    /**
+     * Looks up the plate and records the outcome on {@code result}. Reads with
+     * an unknown emirate are checked against every emirate. When enabled and
+     * the exact code is not listed, the OCR-confusion folded code of both the
+     * parsed plate and the cleaned OCR text are tried as well.
+     */
+    public void match(PlateResult result, String cleanedText) {
+        HotlistIndex current = index;
+        if (current == null) {
+            return;
+        }
+        String code = PlateKey.code(result.getLetter(), result.getNumber());
+        int emirate = PlateKey.emirateCode(result.getEmirate());
+        int mask = lookup(current, emirate, code, false);
+        boolean fuzzy = false;
+        if (mask == 0 && properties.isFuzzy()) {
+            mask = lookup(current, emirate, PlateKey.fold(code), true)
+                    | lookup(current, emirate, PlateKey.fold(plateCode(cleanedText)), true);
+            fuzzy = mask != 0;
+        }
+        if (mask != 0) {
+            result.setHotlist(new HotlistMatch(current.listNames(mask), fuzzy));
+        }
+    }
+
+    public synchronized void reload() {
+        try {
+            if (!Files.isRegularFile(source)) {
+                log.warn("Hotlist file {} not found", source);
+                return;
+            }
+            if (isStale()) {
+                compile();
+            }
+            HotlistIndex loaded = HotlistIndex.open(indexPath);
+            index = loaded;
+            loadedAt = Instant.now();
+            log.info("Loaded hotlist with {} plates in lists {}", loaded.size(), loaded.lists());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load hotlist from {}", source, e);
+        }
+    }
+
+    public HotlistStatus status() {
+        HotlistIndex current = index;
+        HotlistStatus status = new HotlistStatus();
+        status.setEnabled(properties.isEnabled());
+        status.setPath(source.toString());
+        status.setEntries(current != null ? current.size() : 0);
+        status.setLists(current != null ? current.lists() : List.of());
+        status.setLoadedAt(loadedAt != null ? loadedAt.toString() : null);
+        return status;
+    }
+
+    private void reloadIfChanged() {
+        try {
+            if (Files.isRegularFile(source) && isStale()) {
+                reload();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to check hotlist file {}", source, e);
+        }
+    }
+
+    private boolean isStale() throws IOException {
+        if (!Files.exists(indexPath)) {
+            return true;
+        }
+        FileTime sourceTime = Files.getLastModifiedTime(source);
+        return sourceTime.compareTo(Files.getLastModifiedTime(indexPath)) > 0;
+    }
+
+    private void compile() throws IOException {
+        long start = System.nanoTime();
+        HotlistIndex.Builder builder = new HotlistIndex.Builder();
+        long skipped = 0;
+        long lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.regionMatches(true, 0, "emirate,", 0, 8)) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (PlateKey.isUnknownEmirate(fields[0])) {
+                    log.warn("Hotlist {} line {}: unknown emirate '{}', row skipped", source, lineNumber, fields[0].trim());
+                    skipped++;
+                    continue;
+                }
+                if (fields.length < 3 || !builder.add(fields[0], fields[1], fields[2], fields.length > 3 ? fields[3] : null)) {
+                    skipped++;
+                }
+            }
+        }
+        Path temp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        builder.write(temp);
+        Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Compiled hotlist index {} in {} ms ({} rows skipped)", indexPath,
+                (System.nanoTime() - start) / 1_000_000.0, skipped);
+    }
+
+    /**
+     * Probes the read's emirate, or every emirate when it is unknown, plus
+     * {@link PlateKey#ANY_EMIRATE} for rows listed without an emirate.
+     */
+    private static int lookup(HotlistIndex index, int emirate, String code, boolean fuzzy) {
+        if (code.isEmpty()) {
+            return 0;
+        }
+        int first = emirate != 0 ? emirate : 1;
+        int last = emirate != 0 ? emirate : PlateKey.EMIRATES.size();
+        int mask = probe(index, PlateKey.ANY_EMIRATE, code, fuzzy);
+        for (int candidate = first; candidate <= last; candidate++) {
+            mask |= probe(index, candidate, code, fuzzy);
+        }
+        return mask;
+    }
+
+    private static int probe(HotlistIndex index, int emirate, String code, boolean fuzzy) {
+        long key = PlateKey.pack(emirate, code);
+        return fuzzy ? index.lookupFuzzy(key) : index.lookup(key);
+    }
+
+    /**
+     * Concatenates the plate-like tokens of the cleaned OCR text (short letter
+     * groups and alphanumerics containing a digit), e.g. {@code "DUBAI 8 12345"}
+     * becomes {@code "812345"}.
+     */
+    static String plateCode(String cleanedText) {
+        if (cleanedText == null) {
+            return "";
+        }
+        StringBuilder code = new StringBuilder();
+        Matcher matcher = PLATE_TOKEN.matcher(cleanedText);
+        while (matcher.find() && code.length() < PlateKey.MAX_CODE_LENGTH) {
+            code.append(matcher.group(1));
+        }
+        return code.length() > PlateKey.MAX_CODE_LENGTH ? "" : code.toString();
+    }
+}
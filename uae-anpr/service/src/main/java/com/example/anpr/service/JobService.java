@@ -0,0 +1,472 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.JobItem;
+import com.example.anpr.dto.JobStatus;
+import com.example.anpr.dto.PlateResponse;
+import com.example.anpr.dto.PlateResult;
+import com.example.anpr.exception.PlateNotFoundException;
+import com.example.anpr.exception.UploadTooLargeException;
+import com.example.anpr.util.LimitedInputStream;
+import com.example.anpr.util.StageTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk recognition jobs backed by a queue on local disk. Every job is a
+ * directory holding the uploaded images, an immutable {@code job.json}
+ * manifest and one state file per image that is rewritten atomically after
+ * each attempt. On startup all unfinished images are queued again, so jobs
+ * survive restarts. A fixed pool of workers pulls images one at a time, which
+ * keeps intake at the pace the recognition pipeline can sustain. Finished jobs
+ * are deleted {@code retentionHours} after their last image completed.
+ */
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "bmp", "webp", "tif", "tiff");
+
+    private final AnprProperties.Jobs properties;
+    private final PlateService plateService;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final BlockingQueue<WorkItem> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private ScheduledExecutorService cleaner;
+
+    public JobService(AnprProperties properties, PlateService plateService, ObjectMapper objectMapper) {
+        this.properties = properties.getJobs();
+        this.plateService = plateService;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(this.properties.getDirectory()).toAbsolutePath();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        recover();
+        int count = Math.max(1, properties.getWorkers());
+        for (int i = 0; i < count; i++) {
+            Thread worker = new Thread(this::workLoop, "job-worker-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        if (properties.getRetentionHours() > 0) {
+            cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "job-cleaner");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, properties.getCleanupIntervalMin());
+            cleaner.scheduleWithFixedDelay(this::removeExpired, interval, interval, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.forEach(Thread::interrupt);
+        if (cleaner != null) {
+            cleaner.shutdownNow();
+        }
+    }
+
+    /**
+     * Stores the uploaded images (and the images inside uploaded zip archives)
+     * as a new job and queues them. The job only becomes visible, to this
+     * process and to future restarts, once every file is on disk.
+     */
+    public JobStatus submit(List<MultipartFile> files) throws IOException {
+        return store(extraction -> {
+            for (MultipartFile file : files) {
+                String name = file.getOriginalFilename() != null ? file.getOriginalFilename() : "image";
+                if (extension(name).equals("zip")) {
+                    try (InputStream in = file.getInputStream()) {
+                        extractZip(name, in, extraction);
+                    }
+                } else if (!file.isEmpty()) {
+                    extraction.countFile();
+                    try (InputStream in = file.getInputStream()) {
+                        extraction.add(name, in);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Stores a zip archive streamed as the request body as a new job, reading
+     * at most {@code maxUploadMb} from {@code body} and never holding the
+     * archive in memory.
+     */
+    public JobStatus submitArchive(String name, InputStream body) throws IOException {
+        InputStream limited = new LimitedInputStream(body, properties.getMaxUploadMb() * 1024L * 1024L);
+        return store(extraction -> extractZip(name, limited, extraction));
+    }
+
+    private JobStatus store(Upload upload) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path staging = directory.resolve(id + ".tmp");
+        Path input = Files.createDirectories(staging.resolve("input"));
+        Files.createDirectories(staging.resolve("items"));
+        Extraction extraction = new Extraction(input, properties.getMaxExtractedMb() * 1024L * 1024L,
+                properties.getMaxFiles());
+        List<String> names = extraction.names;
+        Manifest manifest;
+        try {
+            upload.writeTo(extraction);
+            if (names.isEmpty()) {
+                throw new IllegalArgumentException("Upload contains no images");
+            }
+            manifest = new Manifest(id, Instant.now().toString(), names);
+            objectMapper.writeValue(staging.resolve("job.json").toFile(), manifest);
+            Files.move(staging, directory.resolve(id), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(staging);
+            throw e;
+        }
+        Job job = new Job(directory.resolve(id), id, manifest.createdAt(), names);
+        jobs.put(id, job);
+        job.items.forEach(item -> queue.add(new WorkItem(job, item.getIndex())));
+        log.info("Queued job {} with {} image(s)", id, names.size());
+        return job.status(false);
+    }
+
+    private static void extractZip(String name, InputStream in, Extraction extraction) throws IOException {
+        ZipInputStream zip = new ZipInputStream(in);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            extraction.countFile();
+            if (!entry.isDirectory() && IMAGE_EXTENSIONS.contains(extension(entry.getName()))) {
+                extraction.add(name + "!" + entry.getName(), zip);
+            }
+        }
+    }
+
+    public Optional<JobStatus> status(String id, boolean includeItems) {
+        return Optional.ofNullable(jobs.get(id)).map(job -> job.status(includeItems));
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path path : entries.toList()) {
+                if (path.getFileName().toString().endsWith(".tmp")) {
+                    deleteRecursively(path);
+                    continue;
+                }
+                Path manifestPath = path.resolve("job.json");
+                if (!Files.isRegularFile(manifestPath)) {
+                    continue;
+                }
+                try {
+                    Manifest manifest = objectMapper.readValue(manifestPath.toFile(), Manifest.class);
+                    Job job = new Job(path, manifest.id(), manifest.createdAt(), manifest.names());
+                    int pending = 0;
+                    Instant lastUpdate = Instant.parse(manifest.createdAt());
+                    for (int i = 0; i < job.items.size(); i++) {
+                        Path state = job.statePath(i);
+                        if (Files.isRegularFile(state)) {
+                            job.items.set(i, objectMapper.readValue(state.toFile(), JobItem.class));
+                            Instant modified = Files.getLastModifiedTime(state).toInstant();
+                            lastUpdate = modified.isAfter(lastUpdate) ? modified : lastUpdate;
+                        }
+                        JobItem item = job.items.get(i);
+                        if ("RUNNING".equals(item.getStatus()) && item.getAttempts() >= properties.getMaxAttempts()) {
+                            // The last attempt never finished, e.g. because the image crashed the JVM.
+                            item.setStatus("FAILED");
+                            item.setError("Attempt " + item.getAttempts() + " did not finish");
+                            writeState(state, item);
+                        }
+                        if (!isFinished(item)) {
+                            queue.add(new WorkItem(job, i));
+                            pending++;
+                        }
+                    }
+                    if (pending == 0) {
+                        job.finishedAt = lastUpdate;
+                    }
+                    jobs.put(job.id, job);
+                    if (pending > 0) {
+                        log.info("Resuming job {} with {} pending image(s)", job.id, pending);
+                    }
+                } catch (IOException e) {
+                    log.error("Skipping unreadable job {}", path, e);
+                }
+            }
+        }
+    }
+
+    private void workLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            WorkItem work;
+            try {
+                work = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            process(work);
+        }
+    }
+
+    private void process(WorkItem work) {
+        Job job = work.job();
+        JobItem item = job.items.get(work.index());
+        JobItem started;
+        synchronized (item) {
+            item.setStatus("RUNNING");
+            item.setAttempts(item.getAttempts() + 1);
+            started = copy(item);
+        }
+        // Count the attempt before running it, so an image that takes the whole
+        // process down is not retried forever.
+        try {
+            writeState(job.statePath(work.index()), started);
+        } catch (IOException e) {
+            log.error("Failed to persist state of job {} item {}", job.id, work.index(), e);
+        }
+        String status;
+        List<PlateResult> results = null;
+        String error = null;
+        try {
+            PlateResponse response = plateService.recognize(Files.readAllBytes(job.inputPath(work.index())),
+                    new StageTimings(LaneScheduler.BULK));
+            results = response.getResults();
+            status = "DONE";
+        } catch (PlateNotFoundException e) {
+            results = List.of();
+            status = "DONE";
+        } catch (IOException | RuntimeException e) {
+            error = e.getMessage();
+            status = item.getAttempts() < properties.getMaxAttempts() ? "RETRY" : "FAILED";
+        }
+        // Persist before publishing, so a finished item seen through the API is
+        // never recomputed after a restart.
+        JobItem outcome = new JobItem(item.getIndex(), item.getName());
+        outcome.setStatus(status);
+        outcome.setAttempts(item.getAttempts());
+        outcome.setResults(results);
+        outcome.setError(error);
+        try {
+            writeState(job.statePath(work.index()), outcome);
+        } catch (IOException e) {
+            log.error("Failed to persist state of job {} item {}", job.id, work.index(), e);
+        }
+        synchronized (item) {
+            item.setStatus(status);
+            item.setResults(results);
+            item.setError(error);
+        }
+        if ("RETRY".equals(status)) {
+            queue.add(work);
+        } else if (job.isFinished()) {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    void removeExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(properties.getRetentionHours()));
+        for (Job job : jobs.values()) {
+            Instant finishedAt = job.finishedAt;
+            if (finishedAt == null || finishedAt.isAfter(cutoff)) {
+                continue;
+            }
+            jobs.remove(job.id);
+            try {
+                deleteRecursively(job.root);
+                log.info("Removed job {} finished at {}", job.id, finishedAt);
+            } catch (IOException e) {
+                log.warn("Failed to delete job {}", job.id, e);
+            }
+        }
+    }
+
+    private void writeState(Path target, JobItem item) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), item);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static boolean isFinished(JobItem item) {
+        return "DONE".equals(item.getStatus()) || "FAILED".equals(item.getStatus());
+    }
+
+    private static JobItem copy(JobItem item) {
+        JobItem copy = new JobItem(item.getIndex(), item.getName());
+        copy.setStatus(item.getStatus());
+        copy.setAttempts(item.getAttempts());
+        copy.setResults(item.getResults());
+        copy.setError(item.getError());
+        return copy;
+    }
+
+    private static String inputName(int index) {
+        return String.format("%06d.img", index);
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private record Manifest(String id, String createdAt, List<String> names) {
+    }
+
+    private record WorkItem(Job job, int index) {
+    }
+
+    @FunctionalInterface
+    private interface Upload {
+
+        /**
+         * Writes the uploaded images through {@code extraction}.
+         */
+        void writeTo(Extraction extraction) throws IOException;
+    }
+
+    /**
+     * Images of one upload being written to disk. Caps the bytes written and
+     * the number of files and archive entries seen, so a small archive cannot
+     * expand into a full disk or an endless listing.
+     */
+    private static final class Extraction {
+
+        private final Path input;
+        private final List<String> names = new ArrayList<>();
+        private final long maxBytes;
+        private final int maxFiles;
+        private long bytes;
+        private int files;
+
+        private Extraction(Path input, long maxBytes, int maxFiles) {
+            this.input = input;
+            this.maxBytes = maxBytes;
+            this.maxFiles = maxFiles;
+        }
+
+        void countFile() {
+            if (++files > maxFiles) {
+                throw new UploadTooLargeException("Upload contains more than " + maxFiles + " files or archive entries");
+            }
+        }
+
+        void add(String name, InputStream in) throws IOException {
+            Path target = input.resolve(inputName(names.size()));
+            try {
+                bytes += Files.copy(new LimitedInputStream(in, maxBytes - bytes), target);
+            } catch (UploadTooLargeException e) {
+                throw new UploadTooLargeException("Upload expands to more than " + maxBytes / (1024 * 1024) + " MB of images");
+            }
+            names.add(name);
+        }
+    }
+
+    private static final class Job {
+
+        private final Path root;
+        private final String id;
+        private final String createdAt;
+        private final List<JobItem> items;
+        private volatile Instant finishedAt;
+
+        private Job(Path root, String id, String createdAt, List<String> names) {
+            this.root = root;
+            this.id = id;
+            this.createdAt = createdAt;
+            this.items = new ArrayList<>(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                items.add(new JobItem(i, names.get(i)));
+            }
+        }
+
+        boolean isFinished() {
+            for (JobItem item : items) {
+                synchronized (item) {
+                    if (!JobService.isFinished(item)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        Path inputPath(int index) {
+            return root.resolve("input").resolve(inputName(index));
+        }
+
+        Path statePath(int index) {
+            return root.resolve("items").resolve(String.format("%06d.json", index));
+        }
+
+        JobStatus status(boolean includeItems) {
+            int completed = 0;
+            int failed = 0;
+            boolean started = false;
+            List<JobItem> snapshot = new ArrayList<>(items.size());
+            for (JobItem item : items) {
+                synchronized (item) {
+                    if ("DONE".equals(item.getStatus())) {
+                        completed++;
+                    } else if ("FAILED".equals(item.getStatus())) {
+                        failed++;
+                    }
+                    started |= item.getAttempts() > 0;
+                    if (includeItems) {
+                        snapshot.add(copy(item));
+                    }
+                }
+            }
+            JobStatus status = new JobStatus();
+            status.setId(id);
+            status.setCreatedAt(createdAt);
+            status.setTotal(items.size());
+            status.setCompleted(completed);
+            status.setFailed(failed);
+            status.setState(completed + failed == items.size() ? "COMPLETED" : started ? "RUNNING" : "QUEUED");
+            status.setItems(includeItems ? snapshot : null);
+            return status;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.LaneStatus;
+import com.example.anpr.exception.PlateProcessingException;
+import com.example.anpr.util.StageTimings;
+import com.example.anpr.util.WeightedFairGate;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifies requests into priority lanes and schedules the detector and OCR
+ * engines between them. Each engine sits behind a {@link WeightedFairGate}
+ * with a fixed number of permits, shared between waiting lanes in proportion
+ * to their weights; bulk work also gets any capacity live traffic leaves
+ * unused. Queue depth, permit wait and end-to-end latency are published per
+ * lane as {@code anpr.lane.*} metrics.
+ */
+@Service
+public class LaneScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(LaneScheduler.class);
+
+    public static final String LIVE = "live";
+    public static final String BULK = "bulk";
+
+    public enum Engine {
+        DETECTOR, OCR
+    }
+
+    private final AnprProperties.Lanes properties;
+    private final MeterRegistry registry;
+    private final Map<Engine, WeightedFairGate> gates = new EnumMap<>(Engine.class);
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Integer> weights;
+    private final Set<String> lanes;
+    private final String defaultLane;
+
+    public LaneScheduler(AnprProperties properties, MeterRegistry registry) {
+        this.properties = properties.getLanes();
+        this.registry = registry;
+        Map<String, Integer> weights = new LinkedHashMap<>(this.properties.getWeights());
+        weights.putIfAbsent(LIVE, 1);
+        weights.putIfAbsent(BULK, 1);
+        this.weights = Map.copyOf(weights);
+        this.lanes = Set.copyOf(weights.keySet());
+        this.defaultLane = weights.containsKey(this.properties.getDefaultLane()) ? this.properties.getDefaultLane() : LIVE;
+        gates.put(Engine.DETECTOR, new WeightedFairGate("detector", this.properties.getDetectorPermits(), weights));
+        gates.put(Engine.OCR, new WeightedFairGate("ocr", this.properties.getOcrPermits(), weights));
+        gates.forEach((engine, gate) -> weights.keySet().forEach(lane ->
+                Gauge.builder("anpr.lane.queued", gate, g -> g.snapshot().get(lane).queued())
+                        .description("Requests waiting for an engine permit")
+                        .tag("engine", gate.getName())
+                        .tag("lane", lane)
+                        .register(registry)));
+        log.info("Priority lanes {} (detector permits {}, OCR permits {})", weights,
+                this.properties.getDetectorPermits(), this.properties.getOcrPermits());
+    }
+
+    /**
+     * Picks the lane for a request: the lane mapped to the caller's API key,
+     * else the endpoint's own lane. A client-supplied lane header can only
+     * move the request to a lane of equal or lower weight, never raise it.
+     * Unknown lane names are ignored.
+     */
+    public String classify(String requestedLane, String apiKey, String endpointLane) {
+        String lane = isLane(endpointLane) ? endpointLane : defaultLane;
+        if (apiKey != null) {
+            String mapped = properties.getApiKeys().get(apiKey);
+            if (isLane(mapped)) {
+                lane = mapped;
+            }
+        }
+        if (isLane(requestedLane) && weights.get(requestedLane) <= weights.get(lane)) {
+            return requestedLane;
+        }
+        return lane;
+    }
+
+    /**
+     * Waits for a permit on {@code engine} in the request's lane. The wait is
+     * recorded as the {@code queue} stage of {@code timings}.
+     */
+    public WeightedFairGate.Permit acquire(Engine engine, StageTimings timings) {
+        String lane = resolve(timings.getLane());
+        WeightedFairGate.Permit permit;
+        try (StageTimings.Span ignored = timings.begin(StageTimings.QUEUE)) {
+            permit = gates.get(engine).acquire(lane);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlateProcessingException("Interrupted while waiting for the " + engine.name().toLowerCase() + " engine", e);
+        }
+        timer("anpr.lane.wait", engine.name().toLowerCase(), lane).record(permit.getWaitNanos(), TimeUnit.NANOSECONDS);
+        return permit;
+    }
+
+    public void recordLatency(StageTimings timings) {
+        timer("anpr.lane.latency", null, resolve(timings.getLane())).record(timings.totalNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public List<LaneStatus> status() {
+        List<LaneStatus> status = new ArrayList<>();
+        gates.values().forEach(gate -> gate.snapshot().forEach((lane, snapshot) -> {
+            LaneStatus laneStatus = new LaneStatus();
+            laneStatus.setEngine(gate.getName());
+            laneStatus.setLane(lane);
+            laneStatus.setWeight(snapshot.weight());
+            laneStatus.setQueued(snapshot.queued());
+            laneStatus.setInFlight(snapshot.inFlight());
+            laneStatus.setGranted(snapshot.granted());
+            laneStatus.setMeanWaitMs(snapshot.meanWaitMs());
+            laneStatus.setMaxWaitMs(snapshot.maxWaitMs());
+            Timer latency = timers.get(timerKey("anpr.lane.latency", null, lane));
+            if (latency != null) {
+                laneStatus.setMeanLatencyMs(latency.mean(TimeUnit.MILLISECONDS));
+            }
+            status.add(laneStatus);
+        }));
+        return status;
+    }
+
+    private boolean isLane(String lane) {
+        return lane != null && lanes.contains(lane);
+    }
+
+    private String resolve(String lane) {
+        return isLane(lane) ? lane : defaultLane;
+    }
+
+    private Timer timer(String name, String engine, String lane) {
+        return timers.computeIfAbsent(timerKey(name, engine, lane), key -> {
+            Timer.Builder builder = Timer.builder(name).tag("lane", lane).publishPercentiles(0.5, 0.95, 0.99);
+            if (engine != null) {
+                builder.tag("engine", engine);
+            }
+            return builder.register(registry);
+        });
+    }
+
+    private static String timerKey(String name, String engine, String lane) {
+        return name + '/' + engine + '/' + lane;
+    }
+}
@@ -2,15 +2,24 @@ package com.example.anpr.service;
 
 import com.example.anpr.config.AnprProperties;
 import com.example.anpr.util.ImageUtils;
+import com.example.anpr.util.PlateStrip;
+import com.example.anpr.util.StageTimings;
+import net.sourceforge.tess4j.ITessAPI;
 import net.sourceforge.tess4j.Tesseract;
 import net.sourceforge.tess4j.TesseractException;
+import org.bytedeco.opencv.global.opencv_core;
 import org.bytedeco.opencv.global.opencv_imgproc;
 import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class OcrService {
@@ -19,34 +28,128 @@ public class OcrService {
 
     private final Tesseract tesseract;
     private final AnprProperties properties;
+    private final AnprProperties.OcrStitch stitch;
 
     public OcrService(Tesseract tesseract, AnprProperties properties) {
         this.tesseract = tesseract;
         this.properties = properties;
+        this.stitch = properties.getOcrStitch();
     }
 
-    public synchronized OcrResult recognize(Mat plateRoi) throws TesseractException {
+    public OcrResult recognize(Mat plateRoi) throws TesseractException {
+        return recognize(plateRoi, new StageTimings());
+    }
+
+    /**
+     * Recognises one plate crop and adds the call, including time spent waiting
+     * for the shared Tesseract instance, to the {@code ocr} stage.
+     */
+    public OcrResult recognize(Mat plateRoi, StageTimings timings) throws TesseractException {
+        try (StageTimings.Span ignored = timings.begin(StageTimings.OCR)) {
+            return doRecognize(plateRoi);
+        }
+    }
+
+    /**
+     * Recognises all plate crops of one frame. With {@code anpr.ocrStitch}
+     * enabled, two or more crops are stacked into one strip image and read in a
+     * single Tesseract pass; plates whose text cannot be attributed from the
+     * line bounding boxes are re-read one by one. Results are in crop order.
+     * Tess4J still initialises and disposes the engine on every call, so a
+     * strip of N plates saves N-1 engine initialisations and page layout
+     * passes; recognising the text itself costs about the same.
+     */
+    public List<OcrResult> recognizeAll(List<Mat> plateRois, StageTimings timings) throws TesseractException {
+        List<OcrResult> results = new ArrayList<>(plateRois.size());
+        if (!stitch.isEnabled() || plateRois.size() < 2) {
+            for (Mat roi : plateRois) {
+                results.add(recognize(roi, timings));
+            }
+            return results;
+        }
+        int chunkSize = Math.max(2, stitch.getMaxPlates());
+        for (int from = 0; from < plateRois.size(); from += chunkSize) {
+            List<Mat> chunk = plateRois.subList(from, Math.min(plateRois.size(), from + chunkSize));
+            String[] texts;
+            try (StageTimings.Span ignored = timings.begin(StageTimings.OCR)) {
+                texts = recognizeStrip(chunk);
+            }
+            int fallbacks = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                if (texts[i] != null) {
+                    results.add(new OcrResult(postProcessText(texts[i]), properties.isReturnRawText() ? texts[i] : null));
+                } else {
+                    fallbacks++;
+                    results.add(recognize(chunk.get(i), timings));
+                }
+            }
+            log.debug("Stitched OCR of {} plates, {} re-read individually", chunk.size(), fallbacks);
+        }
+        return results;
+    }
+
+    private synchronized OcrResult doRecognize(Mat plateRoi) throws TesseractException {
         long start = System.nanoTime();
+        Mat thresh = binarize(plateRoi, 0);
+        BufferedImage buffered = ImageUtils.matToBufferedImage(thresh);
+        thresh.close();
+
+        String raw = tesseract.doOCR(buffered);
+        String cleaned = postProcessText(raw);
+        long end = System.nanoTime();
+        log.debug("OCR time: {} ms", (end - start) / 1_000_000.0);
+        return new OcrResult(cleaned, properties.isReturnRawText() ? raw : null);
+    }
+
+    private synchronized String[] recognizeStrip(List<Mat> plateRois) {
+        int plateHeight = stitch.getPlateHeight();
+        PlateStrip layout = new PlateStrip(plateHeight, plateRois.size());
+        List<Mat> normalised = new ArrayList<>(plateRois.size());
+        int width = 0;
+        for (Mat roi : plateRois) {
+            Mat plate = binarize(roi, plateHeight);
+            normalised.add(plate);
+            width = Math.max(width, plate.cols());
+        }
+        int padding = layout.padding();
+        Mat strip = new Mat(layout.height(), width + 2 * padding, opencv_core.CV_8UC1, new Scalar(255.0));
+        for (int i = 0; i < normalised.size(); i++) {
+            Mat plate = normalised.get(i);
+            Mat target = new Mat(strip, new Rect(padding, layout.top(i), plate.cols(), plate.rows()));
+            plate.copyTo(target);
+            target.close();
+            plate.close();
+        }
+        BufferedImage buffered = ImageUtils.matToBufferedImage(strip);
+        strip.close();
+        return layout.assign(tesseract.getWords(buffered, ITessAPI.TessPageIteratorLevel.RIL_TEXTLINE));
+    }
+
+    /**
+     * Grey, denoised, Otsu-thresholded copy of a plate crop, scaled to
+     * {@code height} rows first when positive.
+     */
+    private static Mat binarize(Mat plateRoi, int height) {
         Mat gray = new Mat();
         if (plateRoi.channels() == 3) {
             opencv_imgproc.cvtColor(plateRoi, gray, opencv_imgproc.COLOR_BGR2GRAY);
         } else {
             plateRoi.copyTo(gray);
         }
+        if (height > 0 && gray.rows() != height) {
+            int width = Math.max(1, (int) Math.round(gray.cols() * (double) height / gray.rows()));
+            Mat resized = new Mat();
+            opencv_imgproc.resize(gray, resized, new Size(width, height), 0, 0, opencv_imgproc.INTER_CUBIC);
+            gray.close();
+            gray = resized;
+        }
         Mat denoised = new Mat();
         opencv_imgproc.bilateralFilter(gray, denoised, 5, 75, 75);
         Mat thresh = new Mat();
         opencv_imgproc.threshold(denoised, thresh, 0, 255, opencv_imgproc.THRESH_BINARY | opencv_imgproc.THRESH_OTSU);
-        BufferedImage buffered = ImageUtils.matToBufferedImage(thresh);
         gray.close();
         denoised.close();
-        thresh.close();
-
-        String raw = tesseract.doOCR(buffered);
-        String cleaned = postProcessText(raw);
-        long end = System.nanoTime();
-        log.debug("OCR time: {} ms", (end - start) / 1_000_000.0);
-        return new OcrResult(cleaned, properties.isReturnRawText() ? raw : null);
+        return thresh;
     }
 
     public static String postProcessText(String raw) {
@@ -6,6 +6,9 @@ import com.example.anpr.exception.PlateNotFoundException;
 import com.example.anpr.exception.PlateProcessingException;
 import com.example.anpr.util.EmirateParser;
 import com.example.anpr.util.ImageUtils;
+import com.example.anpr.util.RoiHeatMap;
+import com.example.anpr.util.StageTimings;
+import com.example.anpr.util.WeightedFairGate;
 import net.sourceforge.tess4j.TesseractException;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Rect;
@@ -13,6 +16,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import ai.onnxruntime.OrtException;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,62 +29,183 @@ public class PlateService {
     private final YoloOnnxService yoloOnnxService;
     private final OcrService ocrService;
     private final EmirateParser emirateParser;
+    private final HotlistService hotlistService;
+    private final ReadLogService readLogService;
+    private final EvidenceService evidenceService;
+    private final SlowRequestSampler slowRequestSampler;
+    private final LaneScheduler laneScheduler;
+    private final CameraRoiService cameraRoiService;
 
-    public PlateService(YoloOnnxService yoloOnnxService, OcrService ocrService, EmirateParser emirateParser) {
+    public PlateService(YoloOnnxService yoloOnnxService, OcrService ocrService, EmirateParser emirateParser,
+                        HotlistService hotlistService, ReadLogService readLogService, EvidenceService evidenceService,
+                        SlowRequestSampler slowRequestSampler, LaneScheduler laneScheduler,
+                        CameraRoiService cameraRoiService) {
         this.yoloOnnxService = yoloOnnxService;
         this.ocrService = ocrService;
         this.emirateParser = emirateParser;
+        this.hotlistService = hotlistService;
+        this.readLogService = readLogService;
+        this.evidenceService = evidenceService;
+        this.slowRequestSampler = slowRequestSampler;
+        this.laneScheduler = laneScheduler;
+        this.cameraRoiService = cameraRoiService;
     }
 
     public PlateResponse recognize(byte[] imageBytes) {
-        long start = System.nanoTime();
-        Mat image = ImageUtils.readImage(imageBytes);
+        return recognize(imageBytes, new StageTimings());
+    }
+
+    /**
+     * Decodes and recognises an encoded image, recording every stage into
+     * {@code timings}. Slow requests keep {@code imageBytes} for diagnostics.
+     */
+    public PlateResponse recognize(byte[] imageBytes, StageTimings timings) {
+        return recognize(imageBytes, null, timings);
+    }
+
+    /**
+     * As {@link #recognize(byte[], StageTimings)}, for a frame from a fixed
+     * camera whose learned region of interest may be used.
+     */
+    public PlateResponse recognize(byte[] imageBytes, String cameraId, StageTimings timings) {
+        Mat image;
+        try (StageTimings.Span ignored = timings.begin(StageTimings.DECODE)) {
+            image = ImageUtils.readImage(imageBytes);
+        }
         if (image == null || image.empty()) {
             if (image != null) {
                 image.close();
             }
             throw new PlateProcessingException("Unable to decode input image", null);
         }
+        try {
+            return recognize(image, imageBytes, cameraId, timings);
+        } finally {
+            image.close();
+        }
+    }
+
+    /**
+     * Runs detection and OCR on an already decoded BGR frame. The caller keeps
+     * ownership of {@code image} and is responsible for releasing it.
+     */
+    public PlateResponse recognize(Mat image) {
+        return recognize(image, null, null, new StageTimings());
+    }
+
+    public PlateResponse recognize(Mat image, StageTimings timings) {
+        return recognize(image, null, null, timings);
+    }
 
+    public PlateResponse recognize(Mat image, String cameraId, StageTimings timings) {
+        return recognize(image, null, cameraId, timings);
+    }
+
+    private PlateResponse recognize(Mat image, byte[] encoded, String cameraId, StageTimings timings) {
         List<PlateResult> results = new ArrayList<>();
+        String error = null;
+        try {
+            process(image, cameraId, timings, results);
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timings.finish(results.size(), error != null);
+            laneScheduler.recordLatency(timings);
+            sample(image, encoded, timings, results.size(), error);
+        }
+        log.info("Processed image with {} detections in {} ms", results.size(), timings.totalNanos() / 1_000_000.0);
+        return new PlateResponse(results);
+    }
+
+    private void process(Mat image, String cameraId, StageTimings timings, List<PlateResult> results) {
+        EvidenceService.Batch evidence = evidenceService.begin(image);
         try {
-            List<YoloOnnxService.Detection> detections = yoloOnnxService.detect(image);
+            RoiHeatMap.Region crop = cameraRoiService.plan(cameraId, image.cols(), image.rows());
+            List<YoloOnnxService.Detection> detections;
+            long detectorNanos;
+            try (WeightedFairGate.Permit ignored = laneScheduler.acquire(LaneScheduler.Engine.DETECTOR, timings)) {
+                long detectStart = System.nanoTime();
+                detections = detect(image, crop, timings);
+                detectorNanos = System.nanoTime() - detectStart;
+            }
+            cameraRoiService.observe(cameraId, image.cols(), image.rows(), crop, detections, detectorNanos);
             if (detections.isEmpty()) {
                 throw new PlateNotFoundException("No licence plates detected");
             }
-            for (YoloOnnxService.Detection detection : detections) {
-                Rect rect = detection.toRect();
-                Mat roi = new Mat(image, rect).clone();
-                try {
-                    OcrService.OcrResult ocrResult = ocrService.recognize(roi);
+            List<Mat> rois = new ArrayList<>(detections.size());
+            try {
+                for (YoloOnnxService.Detection detection : detections) {
+                    rois.add(new Mat(image, detection.toRect()).clone());
+                }
+                List<OcrService.OcrResult> ocrResults;
+                try (WeightedFairGate.Permit ignored = laneScheduler.acquire(LaneScheduler.Engine.OCR, timings)) {
+                    ocrResults = ocrService.recognizeAll(rois, timings);
+                } catch (TesseractException e) {
+                    throw new PlateProcessingException("OCR failed", e);
+                }
+                for (int i = 0; i < detections.size(); i++) {
+                    Rect rect = detections.get(i).toRect();
+                    OcrService.OcrResult ocrResult = ocrResults.get(i);
                     PlateResult plateResult = new PlateResult();
-                    plateResult.setConfidence(detection.confidence());
+                    plateResult.setConfidence(detections.get(i).confidence());
                     plateResult.setX(rect.x());
                     plateResult.setY(rect.y());
                     plateResult.setWidth(rect.width());
                     plateResult.setHeight(rect.height());
                     plateResult.setRawText(ocrResult.raw() != null ? ocrResult.raw() : ocrResult.cleaned());
                     emirateParser.apply(plateResult, ocrResult.cleaned());
+                    hotlistService.match(plateResult, ocrResult.cleaned());
+                    evidence.add(rois.get(i), plateResult);
                     results.add(plateResult);
-                } catch (TesseractException e) {
-                    throw new PlateProcessingException("OCR failed", e);
-                } finally {
-                    roi.close();
                 }
+            } finally {
+                rois.forEach(Mat::close);
             }
+            evidence.submit();
         } catch (PlateNotFoundException e) {
-            image.close();
             throw e;
         } catch (Exception e) {
-            image.close();
+            evidence.discard();
             if (e instanceof PlateProcessingException) {
                 throw (PlateProcessingException) e;
             }
             throw new PlateProcessingException("Detection failed", e);
         }
-        image.close();
-        long end = System.nanoTime();
-        log.info("Processed image with {} detections in {} ms", results.size(), (end - start) / 1_000_000.0);
-        return new PlateResponse(results);
+        readLogService.record(results);
+    }
+
+    /**
+     * Runs the detector on {@code crop} of the frame (or the whole frame when
+     * {@code null}) and returns boxes in full-frame coordinates.
+     */
+    private List<YoloOnnxService.Detection> detect(Mat image, RoiHeatMap.Region crop, StageTimings timings)
+            throws OrtException {
+        if (crop == null) {
+            return yoloOnnxService.detect(image, timings);
+        }
+        Mat view = new Mat(image, new Rect(crop.x(), crop.y(), crop.width(), crop.height()));
+        try {
+            List<YoloOnnxService.Detection> detections = new ArrayList<>();
+            for (YoloOnnxService.Detection detection : yoloOnnxService.detect(view, timings)) {
+                detections.add(new YoloOnnxService.Detection(detection.x() + crop.x(), detection.y() + crop.y(),
+                        detection.width(), detection.height(), detection.confidence()));
+            }
+            return detections;
+        } finally {
+            view.close();
+        }
+    }
+
+    private void sample(Mat image, byte[] encoded, StageTimings timings, int detections, String error) {
+        if (!slowRequestSampler.qualifies(timings.totalNanos())) {
+            return;
+        }
+        try {
+            byte[] bytes = encoded != null ? encoded : ImageUtils.encodeJpeg(image, 90);
+            slowRequestSampler.offer(timings, bytes, detections, error);
+        } catch (RuntimeException e) {
+            log.warn("Failed to keep slow request sample {}", timings.getRequestId(), e);
+        }
     }
 }
@@ -0,0 +1,431 @@
+package com.example.anpr.service;
+
+import com.example.anpr.dto.ReadRecord;
+import com.example.anpr.util.PlateKey;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One memory-mapped segment of the read log. Records are appended to a
+ * pre-sized file as {@code [int length][long timestamp][long key][float confidence]}
+ * followed by the length-prefixed number, letter and emirate strings; the
+ * length is written last so a torn record reads as the end of the segment.
+ *
+ * <p>While active, the segment appends its index entries to primitive arrays
+ * and searches a copy of them sorted by key; entries appended since that copy
+ * was made are scanned linearly and merged in once there are enough of them.
+ * When sealed, the file is truncated to its content and the index is written
+ * to a sidecar {@code .idx} file sorted by key and time, which is
+ * memory-mapped and binary-searched.
+ *
+ * <p>Searches only hold the segment monitor to take a snapshot: index entries
+ * and records below the snapshot's count are never modified again, so they are
+ * read without blocking {@link #append}.
+ */
+final class ReadLogSegment {
+
+    private static final int HEADER_LONGS = 3;
+    private static final int ENTRY_LONGS = 3;
+    /**
+     * Unsorted entries a search tolerates before merging them into the sorted
+     * copy.
+     */
+    private static final int MERGE_THRESHOLD = 1024;
+
+    private final long id;
+    private final Path logPath;
+    private final Path indexPath;
+    private final MappedByteBuffer data;
+    private int position;
+    private boolean sealed;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    private long[] keys = new long[1024];
+    private long[] times = new long[1024];
+    private int[] offsets = new int[1024];
+    private int count;
+    private volatile SortedKeys sortedKeys = SortedKeys.EMPTY;
+
+    private LongBuffer index;
+    private int indexCount;
+
+    private ReadLogSegment(long id, Path logPath, MappedByteBuffer data) {
+        this.id = id;
+        this.logPath = logPath;
+        this.indexPath = logPath.resolveSibling(logPath.getFileName().toString().replace(".log", ".idx"));
+        this.data = data;
+    }
+
+    static Path logPath(Path directory, long id) {
+        return directory.resolve(String.format("reads-%012d.log", id));
+    }
+
+    static ReadLogSegment create(Path directory, long id, int capacity) throws IOException {
+        Path path = logPath(directory, id);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new ReadLogSegment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+    }
+
+    /**
+     * Opens an existing segment. The active segment is re-mapped for writing and
+     * its in-memory index is rebuilt by scanning; sealed segments map their
+     * index file, which also holds their time range, and are only scanned to
+     * rebuild it when it is missing.
+     */
+    static ReadLogSegment open(Path path, long id, boolean active, int capacity) throws IOException {
+        ReadLogSegment segment;
+        try (FileChannel channel = active
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = active ? Math.max(capacity, channel.size()) : channel.size();
+            FileChannel.MapMode mode = active ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            segment = new ReadLogSegment(id, path, channel.map(mode, 0, size));
+        }
+        if (!active && Files.exists(segment.indexPath)) {
+            segment.mapIndex();
+            return segment;
+        }
+        segment.scan();
+        if (!active) {
+            segment.writeIndex();
+            segment.mapIndex();
+        }
+        return segment;
+    }
+
+    long id() {
+        return id;
+    }
+
+    synchronized long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    /**
+     * Appends one read. Returns {@code false} when the segment is full.
+     */
+    synchronized boolean append(long timestamp, long key, float confidence, String number, String letter, String emirate) {
+        byte[] numberBytes = bytes(number);
+        byte[] letterBytes = bytes(letter);
+        byte[] emirateBytes = bytes(emirate);
+        int length = 8 + 8 + 4 + 6 + numberBytes.length + letterBytes.length + emirateBytes.length;
+        int start = position;
+        if (sealed || start + 4 + length > data.capacity()) {
+            return false;
+        }
+        data.position(start + 4);
+        data.putLong(timestamp).putLong(key).putFloat(confidence);
+        putString(numberBytes);
+        putString(letterBytes);
+        putString(emirateBytes);
+        data.putInt(start, length);
+        position = start + 4 + length;
+        addToIndex(key, timestamp, start);
+        return true;
+    }
+
+    synchronized void force() {
+        if (!sealed) {
+            data.force();
+        }
+    }
+
+    synchronized void seal() throws IOException {
+        data.force();
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(position);
+        }
+        writeIndex();
+        mapIndex();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(indexPath);
+        Files.deleteIfExists(logPath);
+    }
+
+    /**
+     * Collects reads of any of {@code keys} with a timestamp in {@code [from, to]}.
+     */
+    void search(Collection<Long> searchKeys, long from, long to, List<Hit> out) {
+        Entries entries;
+        synchronized (this) {
+            if (maxTimestamp < from || minTimestamp > to) {
+                return;
+            }
+            entries = sealed ? null : new Entries(keys, times, offsets, count);
+        }
+        if (entries == null) {
+            searchSealed(searchKeys, from, to, out);
+            return;
+        }
+        SortedKeys sorted = sortedKeys(entries);
+        for (long key : searchKeys) {
+            for (int i = sorted.lowerBound(key); i < sorted.size() && sorted.keys()[i] == key; i++) {
+                collect(entries, sorted.entries()[i], from, to, out);
+            }
+            for (int entry = sorted.size(); entry < entries.count(); entry++) {
+                if (entries.keys()[entry] == key) {
+                    collect(entries, entry, from, to, out);
+                }
+            }
+        }
+    }
+
+    private void searchSealed(Collection<Long> searchKeys, long from, long to, List<Hit> out) {
+        for (long key : searchKeys) {
+            for (int i = lowerBound(key); i < indexCount && index.get(i * ENTRY_LONGS) == key; i++) {
+                long timestamp = index.get(i * ENTRY_LONGS + 1);
+                if (timestamp >= from && timestamp <= to) {
+                    out.add(new Hit(timestamp, read((int) index.get(i * ENTRY_LONGS + 2))));
+                }
+            }
+        }
+    }
+
+    private void collect(Entries entries, int entry, long from, long to, List<Hit> out) {
+        long timestamp = entries.times()[entry];
+        if (timestamp >= from && timestamp <= to) {
+            out.add(new Hit(timestamp, read(entries.offsets()[entry])));
+        }
+    }
+
+    /**
+     * The sorted copy of the active index, first merging in the entries
+     * appended since it was made when there are enough of them.
+     */
+    private SortedKeys sortedKeys(Entries entries) {
+        SortedKeys current = sortedKeys;
+        if (entries.count() - current.size() < MERGE_THRESHOLD) {
+            return current;
+        }
+        SortedKeys merged = current.merge(entries.keys(), entries.count());
+        synchronized (this) {
+            if (!sealed && merged.size() > sortedKeys.size()) {
+                sortedKeys = merged;
+            }
+        }
+        return merged;
+    }
+
+    private void scan() {
+        int limit = data.capacity();
+        int offset = 0;
+        while (offset + 4 <= limit) {
+            int length = data.getInt(offset);
+            if (length <= 0 || offset + 4 + length > limit) {
+                break;
+            }
+            addToIndex(data.getLong(offset + 12), data.getLong(offset + 4), offset);
+            offset += 4 + length;
+        }
+        position = offset;
+    }
+
+    private void addToIndex(long key, long timestamp, int offset) {
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        if (key == PlateKey.INVALID) {
+            return;
+        }
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+            times = Arrays.copyOf(times, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        keys[count] = key;
+        times[count] = timestamp;
+        offsets[count] = offset;
+        count++;
+    }
+
+    private void writeIndex() throws IOException {
+        // Entries were appended in time order and the sort is stable, so reads of
+        // the same plate stay ordered by timestamp.
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+        long[] entries = new long[HEADER_LONGS + count * ENTRY_LONGS];
+        entries[0] = count;
+        entries[1] = minTimestamp;
+        entries[2] = maxTimestamp;
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER_LONGS + i * ENTRY_LONGS;
+            entries[entry] = keys[order[i]];
+            entries[entry + 1] = times[order[i]];
+            entries[entry + 2] = offsets[order[i]];
+        }
+        Path temp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, entries.length * 8L);
+            out.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().put(entries);
+            out.force();
+        }
+        Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void mapIndex() throws IOException {
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            LongBuffer longs = mapped.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            indexCount = (int) longs.get(0);
+            minTimestamp = longs.get(1);
+            maxTimestamp = longs.get(2);
+            index = longs.slice(HEADER_LONGS, indexCount * ENTRY_LONGS);
+        }
+        sealed = true;
+        keys = null;
+        times = null;
+        offsets = null;
+        count = 0;
+        sortedKeys = SortedKeys.EMPTY;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = indexCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (index.get(mid * ENTRY_LONGS) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private ReadRecord read(int offset) {
+        ReadRecord record = new ReadRecord();
+        record.setTimestamp(Instant.ofEpochMilli(data.getLong(offset + 4)).toString());
+        record.setConfidence(data.getFloat(offset + 20));
+        int cursor = offset + 24;
+        String[] strings = new String[3];
+        for (int i = 0; i < strings.length; i++) {
+            int length = data.getShort(cursor);
+            byte[] bytes = new byte[length];
+            data.get(cursor + 2, bytes);
+            strings[i] = length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+            cursor += 2 + length;
+        }
+        record.setNumber(strings[0]);
+        record.setLetter(strings[1]);
+        record.setEmirate(strings[2]);
+        return record;
+    }
+
+    private void putString(byte[] bytes) {
+        data.putShort((short) bytes.length);
+        data.put(bytes);
+    }
+
+    private static byte[] bytes(String value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return bytes.length > Short.MAX_VALUE ? Arrays.copyOf(bytes, Short.MAX_VALUE) : bytes;
+    }
+
+    static List<Path> list(Path directory) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (var stream = Files.list(directory)) {
+            stream.filter(path -> path.getFileName().toString().matches("reads-\\d{12}\\.log"))
+                    .sorted()
+                    .forEach(paths::add);
+        }
+        return paths;
+    }
+
+    static long idOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring("reads-".length(), name.length() - ".log".length()));
+    }
+
+    /**
+     * A read found by {@link #search}, with its timestamp in epoch millis for
+     * ordering.
+     */
+    record Hit(long timestamp, ReadRecord record) {
+    }
+
+    /**
+     * Snapshot of the active index arrays; entries below {@code count} are
+     * immutable.
+     */
+    private record Entries(long[] keys, long[] times, int[] offsets, int count) {
+    }
+
+    /**
+     * Entry numbers of the first {@code size()} index entries, ordered by key
+     * and, within a key, by append order.
+     */
+    private record SortedKeys(long[] keys, int[] entries) {
+
+        static final SortedKeys EMPTY = new SortedKeys(new long[0], new int[0]);
+
+        int size() {
+            return keys.length;
+        }
+
+        int lowerBound(long key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && keys[index - 1] == key) {
+                index--;
+            }
+            return index;
+        }
+
+        /**
+         * Merges entries {@code [size(), count)} of {@code allKeys} into a new
+         * copy. Only the new entries are sorted; the merge itself is linear.
+         */
+        SortedKeys merge(long[] allKeys, int count) {
+            int from = size();
+            Integer[] added = new Integer[count - from];
+            for (int i = 0; i < added.length; i++) {
+                added[i] = from + i;
+            }
+            Arrays.sort(added, Comparator.comparingLong(entry -> allKeys[entry]));
+            long[] mergedKeys = new long[count];
+            int[] mergedEntries = new int[count];
+            int left = 0;
+            int right = 0;
+            for (int i = 0; i < count; i++) {
+                // Ties take the older entry first, so append order is kept within a key.
+                if (right == added.length || (left < from && keys[left] <= allKeys[added[right]])) {
+                    mergedKeys[i] = keys[left];
+                    mergedEntries[i] = entries[left++];
+                } else {
+                    mergedEntries[i] = added[right++];
+                    mergedKeys[i] = allKeys[mergedEntries[i]];
+                }
+            }
+            return new SortedKeys(mergedKeys, mergedEntries);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.PlateResult;
+import com.example.anpr.dto.ReadRecord;
+import com.example.anpr.util.PlateKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps every recognised plate in an append-only log on local disk so past
+ * sightings can be searched. Recognition threads only enqueue into a bounded
+ * queue (dropping and counting when it is full); a single writer thread
+ * appends batches to memory-mapped {@link ReadLogSegment}s and rolls over to a
+ * new segment when the current one is full. Sealed segments past retention are
+ * deleted at startup, on every roll and hourly by the writer, so a quiet log
+ * still expires old data.
+ */
+@Service
+public class ReadLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadLogService.class);
+
+    private static final int MAX_BATCH = 1024;
+
+    private static final long RETENTION_CHECK_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final AnprProperties.ReadLog properties;
+    private final Path directory;
+    private final BlockingQueue<PendingRead> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<ReadLogSegment> segments = new ArrayList<>();
+    private ReadLogSegment active;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ReadLogService(AnprProperties properties) {
+        this.properties = properties.getReadLog();
+        this.directory = Path.of(this.properties.getDirectory()).toAbsolutePath();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, this.properties.getQueueCapacity()));
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Path> existing = ReadLogSegment.list(directory);
+        for (int i = 0; i < existing.size(); i++) {
+            Path path = existing.get(i);
+            boolean last = i == existing.size() - 1;
+            segments.add(ReadLogSegment.open(path, ReadLogSegment.idOf(path), last, segmentCapacity()));
+        }
+        if (segments.isEmpty()) {
+            segments.add(ReadLogSegment.create(directory, 0, segmentCapacity()));
+        }
+        active = segments.get(segments.size() - 1);
+        expire();
+        log.info("Read log opened at {} with {} segment(s)", directory, segments.size());
+        running = true;
+        writer = new Thread(this::writeLoop, "read-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        synchronized (this) {
+            active.force();
+        }
+    }
+
+    /**
+     * Queues the reads for persistence without ever blocking the caller.
+     */
+    public void record(List<PlateResult> results) {
+        if (!running) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        for (PlateResult result : results) {
+            if (!queue.offer(new PendingRead(timestamp, result))) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns reads of the given plate, newest first. Without an emirate, reads
+     * of the number under any (or no) emirate are returned; the letter, when
+     * given, further narrows the result.
+     */
+    public List<ReadRecord> search(String number, String letter, String emirate, Instant from, Instant to, int limit) {
+        if (number == null || !number.matches("\\d{1,8}")) {
+            throw new IllegalArgumentException("number must be 1-8 digits");
+        }
+        int emirateCode = PlateKey.emirateCode(emirate);
+        List<Long> keys = new ArrayList<>();
+        if (emirateCode != 0) {
+            keys.add(PlateKey.pack(emirateCode, number));
+        } else {
+            for (int code = 0; code <= PlateKey.EMIRATES.size(); code++) {
+                keys.add(PlateKey.pack(code, number));
+            }
+        }
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        List<ReadLogSegment> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+        }
+        List<ReadRecord> results = new ArrayList<>();
+        for (int i = snapshot.size() - 1; i >= 0 && results.size() < limit; i--) {
+            List<ReadLogSegment.Hit> matches = new ArrayList<>();
+            snapshot.get(i).search(keys, fromMillis, toMillis, matches);
+            matches.stream()
+                    .filter(hit -> letter == null || letter.equalsIgnoreCase(hit.record().getLetter()))
+                    .sorted(Comparator.comparingLong(ReadLogSegment.Hit::timestamp).reversed())
+                    .limit(limit - results.size())
+                    .map(ReadLogSegment.Hit::record)
+                    .forEach(results::add);
+        }
+        return results;
+    }
+
+    private void writeLoop() {
+        List<PendingRead> batch = new ArrayList<>(MAX_BATCH);
+        long lastForce = System.nanoTime();
+        long lastExpiry = System.nanoTime();
+        long flushNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRead first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    append(batch);
+                    batch.clear();
+                }
+                if (System.nanoTime() - lastForce >= flushNanos) {
+                    synchronized (this) {
+                        active.force();
+                    }
+                    lastForce = System.nanoTime();
+                }
+                if (System.nanoTime() - lastExpiry >= RETENTION_CHECK_NANOS) {
+                    lastExpiry = System.nanoTime();
+                    expire();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | UncheckedIOException e) {
+                log.error("Failed to write read log batch of {} reads", batch.size(), e);
+                dropped.addAndGet(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void append(List<PendingRead> batch) throws IOException {
+        for (PendingRead read : batch) {
+            PlateResult result = read.result();
+            long key = PlateKey.pack(PlateKey.emirateCode(result.getEmirate()), result.getNumber());
+            float confidence = (float) result.getConfidence();
+            if (!active.append(read.timestamp(), key, confidence, result.getNumber(), result.getLetter(), result.getEmirate())) {
+                roll();
+                active.append(read.timestamp(), key, confidence, result.getNumber(), result.getLetter(), result.getEmirate());
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        ReadLogSegment next = ReadLogSegment.create(directory, active.id() + 1, segmentCapacity());
+        active.seal();
+        synchronized (this) {
+            segments.add(next);
+            active = next;
+        }
+        log.info("Read log rolled to segment {}", next.id());
+        expire();
+    }
+
+    /**
+     * Deletes sealed segments whose newest read is past retention. The active
+     * segment is kept until it rolls over.
+     */
+    private void expire() throws IOException {
+        if (properties.getRetentionDays() <= 0) {
+            return;
+        }
+        long cutoff = Instant.now().minus(Duration.ofDays(properties.getRetentionDays())).toEpochMilli();
+        List<ReadLogSegment> expired = new ArrayList<>();
+        synchronized (this) {
+            while (segments.size() > 1 && segments.get(0).maxTimestamp() < cutoff) {
+                expired.add(segments.remove(0));
+            }
+        }
+        for (ReadLogSegment segment : expired) {
+            segment.delete();
+        }
+        if (!expired.isEmpty()) {
+            log.info("Deleted {} read log segment(s) past {} days of retention", expired.size(), properties.getRetentionDays());
+        }
+    }
+
+    private int segmentCapacity() {
+        return properties.getSegmentSizeMb() * 1024 * 1024;
+    }
+
+    private record PendingRead(long timestamp, PlateResult result) {
+    }
+}
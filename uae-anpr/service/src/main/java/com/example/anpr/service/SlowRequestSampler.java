@@ -0,0 +1,119 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.SlowRequestSample;
+import com.example.anpr.util.StageTimings;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the input image and stage timings of the slowest recognition requests
+ * in a fixed number of slots. Once every slot is used, a new request only gets
+ * in by evicting the fastest sample, so the buffer converges on the worst
+ * outliers seen since startup. {@link #qualifies(long)} is a lock-free check
+ * so that fast requests never touch the lock or copy their image.
+ */
+@Service
+public class SlowRequestSampler {
+
+    private final Sample[] slots;
+    private final long thresholdNanos;
+    private volatile long floorNanos;
+    private int size;
+
+    public SlowRequestSampler(AnprProperties properties) {
+        AnprProperties.Diagnostics diagnostics = properties.getDiagnostics();
+        this.slots = new Sample[Math.max(0, diagnostics.getSlowSamples())];
+        this.thresholdNanos = Math.max(0, diagnostics.getSlowThresholdMs()) * 1_000_000L;
+        this.floorNanos = thresholdNanos;
+    }
+
+    public boolean qualifies(long totalNanos) {
+        return slots.length > 0 && totalNanos >= floorNanos;
+    }
+
+    /**
+     * Offers a finished request. {@code image} is kept by reference, so callers
+     * must not modify it afterwards.
+     */
+    public synchronized void offer(StageTimings timings, byte[] image, int detections, String error) {
+        long nanos = timings.totalNanos();
+        if (!qualifies(nanos)) {
+            return;
+        }
+        Sample sample = new Sample(nanos, toDto(timings, image, detections, error), image);
+        if (size < slots.length) {
+            slots[size++] = sample;
+        } else {
+            slots[fastestSlot()] = sample;
+        }
+        if (size == slots.length) {
+            floorNanos = Math.max(thresholdNanos, slots[fastestSlot()].nanos());
+        }
+    }
+
+    /**
+     * Current samples, slowest first.
+     */
+    public synchronized List<SlowRequestSample> list() {
+        List<Sample> samples = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            samples.add(slots[i]);
+        }
+        samples.sort(Comparator.comparingLong(Sample::nanos).reversed());
+        return samples.stream().map(Sample::info).toList();
+    }
+
+    public synchronized Optional<Sample> find(long requestId) {
+        for (int i = 0; i < size; i++) {
+            if (slots[i].info().getRequestId() == requestId) {
+                return Optional.of(slots[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int fastestSlot() {
+        int fastest = 0;
+        for (int i = 1; i < size; i++) {
+            if (slots[i].nanos() < slots[fastest].nanos()) {
+                fastest = i;
+            }
+        }
+        return fastest;
+    }
+
+    private static SlowRequestSample toDto(StageTimings timings, byte[] image, int detections, String error) {
+        SlowRequestSample dto = new SlowRequestSample();
+        dto.setRequestId(timings.getRequestId());
+        dto.setTimestamp(Instant.now());
+        dto.setTotalMs(timings.totalNanos() / 1_000_000.0);
+        dto.setStagesMs(timings.toMillis());
+        dto.setDetections(detections);
+        dto.setError(error);
+        dto.setContentType(contentType(image));
+        dto.setImageBytes(image != null ? image.length : 0);
+        return dto;
+    }
+
+    static String contentType(byte[] image) {
+        if (image == null || image.length < 4) {
+            return "application/octet-stream";
+        }
+        if ((image[0] & 0xFF) == 0xFF && (image[1] & 0xFF) == 0xD8) {
+            return "image/jpeg";
+        }
+        if ((image[0] & 0xFF) == 0x89 && image[1] == 'P' && image[2] == 'N' && image[3] == 'G') {
+            return "image/png";
+        }
+        return "application/octet-stream";
+    }
+
+    public record Sample(long nanos, SlowRequestSample info, byte[] image) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.StreamStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class StreamIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamIngestionService.class);
+
+    private final AnprProperties.Stream properties;
+    private final Map<String, StreamWorker> workers = new LinkedHashMap<>();
+
+    public StreamIngestionService(AnprProperties properties, PlateService plateService) {
+        this.properties = properties.getStream();
+        for (AnprProperties.Source source : this.properties.getSources()) {
+            if (source.getId() == null || source.getUri() == null) {
+                throw new IllegalArgumentException("Stream sources require both id and uri");
+            }
+            workers.put(source.getId(), new StreamWorker(source, plateService, this.properties.getMaxSkip()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("Starting {} stream(s)", workers.size());
+        workers.values().forEach(StreamWorker::start);
+    }
+
+    public List<StreamStats> stats() {
+        return workers.values().stream().map(StreamWorker::stats).toList();
+    }
+
+    public Optional<StreamStats> stats(String id) {
+        return Optional.ofNullable(workers.get(id)).map(StreamWorker::stats);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.values().forEach(StreamWorker::stop);
+    }
+}
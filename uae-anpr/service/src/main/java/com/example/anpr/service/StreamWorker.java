@@ -0,0 +1,217 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.PlateResponse;
+import com.example.anpr.dto.PlateResult;
+import com.example.anpr.dto.StreamStats;
+import com.example.anpr.exception.PlateNotFoundException;
+import com.example.anpr.exception.PlateProcessingException;
+import com.example.anpr.util.AdaptiveFrameSkipper;
+import com.example.anpr.util.LatestFrameBuffer;
+import com.example.anpr.util.RateMeter;
+import com.example.anpr.util.StageTimings;
+import org.bytedeco.opencv.global.opencv_videoio;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_videoio.VideoCapture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads one video file or MJPEG stream with OpenCV and feeds it to the
+ * recognition pipeline. Decoding runs on its own thread and hands frames over
+ * through a {@link LatestFrameBuffer}, so a slow pipeline only ever sees the
+ * newest frame instead of a growing backlog.
+ */
+class StreamWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamWorker.class);
+
+    private final AnprProperties.Source source;
+    private final PlateService plateService;
+    private final AdaptiveFrameSkipper skipper;
+    private final LatestFrameBuffer<Frame> buffer = new LatestFrameBuffer<>(frame -> frame.image().close());
+    private final RateMeter framesIn = new RateMeter();
+    private final RateMeter framesOut = new RateMeter();
+    private final AtomicLong framesSkipped = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile String state = "CREATED";
+    private volatile List<PlateResult> lastResults = List.of();
+    private Thread decoderThread;
+    private Thread processorThread;
+
+    StreamWorker(AnprProperties.Source source, PlateService plateService, int maxSkip) {
+        this.source = source;
+        this.plateService = plateService;
+        this.skipper = new AdaptiveFrameSkipper(maxSkip, 0);
+    }
+
+    String id() {
+        return source.getId();
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        state = "STARTING";
+        decoderThread = new Thread(this::decodeLoop, "stream-decoder-" + source.getId());
+        processorThread = new Thread(this::processLoop, "stream-processor-" + source.getId());
+        decoderThread.setDaemon(true);
+        processorThread.setDaemon(true);
+        decoderThread.start();
+        processorThread.start();
+    }
+
+    synchronized void stop() {
+        running = false;
+        for (Thread thread : new Thread[]{decoderThread, processorThread}) {
+            if (thread == null) {
+                continue;
+            }
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        state = "STOPPED";
+    }
+
+    StreamStats stats() {
+        StreamStats stats = new StreamStats();
+        stats.setId(source.getId());
+        stats.setUri(source.getUri());
+        stats.setState(state);
+        stats.setFramesIn(framesIn.getCount());
+        stats.setFramesSkipped(framesSkipped.get());
+        stats.setFramesDropped(buffer.getDropped());
+        stats.setFramesProcessed(framesOut.getCount());
+        stats.setFpsIn(framesIn.getRate());
+        stats.setFpsOut(framesOut.getRate());
+        stats.setSkipStride(skipper.getStride());
+        stats.setLastResults(lastResults);
+        return stats;
+    }
+
+    private void decodeLoop() {
+        VideoCapture capture = new VideoCapture();
+        boolean ended = false;
+        try {
+            if (!capture.open(source.getUri())) {
+                log.error("Unable to open stream {} at {}", source.getId(), source.getUri());
+                state = "FAILED";
+                return;
+            }
+            state = "RUNNING";
+            // Local files are read as fast as the disk allows, so they are paced at their
+            // nominal frame rate to behave like a live camera.
+            double fps = capture.get(opencv_videoio.CAP_PROP_FPS);
+            long frameNanos = isLocalFile(source.getUri()) && fps > 0 ? (long) (1_000_000_000L / fps) : 0;
+            log.info("Stream {} opened ({} fps, paced: {})", source.getId(), fps, frameNanos > 0);
+
+            long startNanos = System.nanoTime();
+            long lastGrab = startNanos;
+            long index = 0;
+            while (running) {
+                if (frameNanos > 0) {
+                    long wait = startNanos + index * frameNanos - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                }
+                if (!capture.grab()) {
+                    state = "ENDED";
+                    ended = true;
+                    break;
+                }
+                index++;
+                long now = System.nanoTime();
+                skipper.recordFrameInterval((now - lastGrab) / 1_000_000.0);
+                lastGrab = now;
+                framesIn.mark();
+                if (!skipper.shouldDecode()) {
+                    framesSkipped.incrementAndGet();
+                    continue;
+                }
+                Mat image = new Mat();
+                if (!capture.retrieve(image) || image.empty()) {
+                    image.close();
+                    continue;
+                }
+                buffer.offer(new Frame(index, image));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Stream {} failed", source.getId(), e);
+            state = "FAILED";
+        } finally {
+            // At the end of a file the last decoded frame is still processed;
+            // when stopping or failing it is released unprocessed.
+            if (ended) {
+                buffer.finish();
+            } else {
+                buffer.close();
+            }
+            capture.release();
+            capture.close();
+        }
+    }
+
+    private void processLoop() {
+        while (true) {
+            Frame frame;
+            try {
+                frame = buffer.poll(250, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                buffer.close();
+                return;
+            }
+            if (frame == null) {
+                if (buffer.isClosed()) {
+                    return;
+                }
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                PlateResponse response = plateService.recognize(frame.image(), source.getId(), new StageTimings(LaneScheduler.LIVE));
+                lastResults = response.getResults();
+            } catch (PlateNotFoundException e) {
+                lastResults = List.of();
+            } catch (PlateProcessingException e) {
+                log.warn("Stream {} frame {} failed: {}", source.getId(), frame.index(), e.getMessage());
+            } catch (RuntimeException e) {
+                // E.g. an OpenCV error on a corrupt frame: skip the frame, keep the stream alive.
+                log.error("Stream {} frame {} failed unexpectedly", source.getId(), frame.index(), e);
+            } finally {
+                frame.image().close();
+            }
+            skipper.recordProcessingTime((System.nanoTime() - start) / 1_000_000.0);
+            framesOut.mark();
+        }
+    }
+
+    private static boolean isLocalFile(String uri) {
+        try {
+            return Files.isRegularFile(Path.of(uri));
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+
+    private record Frame(long index, Mat image) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.util.ImageUtils;
+import com.example.anpr.util.StageTimings;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Pushes synthetic plates through decode, detection and OCR before the
+ * application reports itself ready. Spring Boot only switches readiness to
+ * {@code ACCEPTING_TRAFFIC} after all runners have completed, so the first
+ * real requests no longer pay for ONNX Runtime's first-run allocations or JIT
+ * compilation. Tess4J initialises the engine on every call, so OCR warm-up
+ * only brings the language data into the page cache. Warm-up goes through the
+ * individual stages rather than {@link PlateService} so it leaves no trace in
+ * the read log, evidence archive or hotlist statistics.
+ */
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+
+    private static final Rect PLATE = new Rect(120, 260, 400, 120);
+
+    private final YoloOnnxService yoloOnnxService;
+    private final OcrService ocrService;
+    private final AnprProperties properties;
+
+    public WarmupService(YoloOnnxService yoloOnnxService, OcrService ocrService, AnprProperties properties) {
+        this.yoloOnnxService = yoloOnnxService;
+        this.ocrService = ocrService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AnprProperties.Startup startup = properties.getStartup();
+        if (!startup.isWarmupEnabled() || startup.getWarmupIterations() <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        byte[] jpeg;
+        try (Mat synthetic = syntheticFrame()) {
+            jpeg = ImageUtils.encodeJpeg(synthetic, 90);
+        }
+        for (int i = 0; i < startup.getWarmupIterations(); i++) {
+            long iteration = System.nanoTime();
+            Mat image = ImageUtils.readImage(jpeg);
+            try (Mat plate = new Mat(image, PLATE).clone()) {
+                yoloOnnxService.detect(image);
+                // Two plates, as PlateService reads them, so the stitched path is warm too.
+                ocrService.recognizeAll(List.of(plate, plate), new StageTimings());
+            } catch (Exception | LinkageError e) {
+                log.warn("Warm-up iteration {} failed: {}", i + 1, e.getMessage());
+                break;
+            } finally {
+                image.close();
+            }
+            log.debug("Warm-up iteration {} took {} ms", i + 1, (System.nanoTime() - iteration) / 1_000_000.0);
+        }
+        log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private Mat syntheticFrame() {
+        int size = Math.max(properties.getImgsz(), 640);
+        Mat frame = new Mat(size, size, opencv_core.CV_8UC3, new Scalar(90, 90, 90, 0));
+        opencv_imgproc.rectangle(frame, PLATE, new Scalar(255, 255, 255, 0), opencv_imgproc.FILLED, opencv_imgproc.LINE_8, 0);
+        opencv_imgproc.putText(frame, "DUBAI F 12345", new Point(PLATE.x() + 20, PLATE.y() + 75),
+                opencv_imgproc.FONT_HERSHEY_SIMPLEX, 1.4, new Scalar(0, 0, 0, 0), 3, opencv_imgproc.LINE_AA, false);
+        return frame;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.anpr.util;
+
+/**
+ * Decides which grabbed frames are worth decoding so that a stream is processed
+ * in real time. The skip factor follows the ratio between the smoothed
+ * processing time and the smoothed frame interval of the source, bounded by
+ * {@code maxSkip}. Frames that are not selected are never decoded, which is
+ * where most of the savings come from on high resolution sources.
+ */
+public class AdaptiveFrameSkipper {
+
+    private static final double ALPHA = 0.2;
+
+    private final int maxSkip;
+    private double frameIntervalMs;
+    private double processingMs;
+    private long counter;
+    private int stride = 1;
+
+    public AdaptiveFrameSkipper(int maxSkip, double nominalFps) {
+        this.maxSkip = Math.max(0, maxSkip);
+        this.frameIntervalMs = nominalFps > 0 ? 1000.0 / nominalFps : 0;
+    }
+
+    public synchronized boolean shouldDecode() {
+        return counter++ % stride == 0;
+    }
+
+    public synchronized void recordFrameInterval(double intervalMs) {
+        frameIntervalMs = frameIntervalMs == 0 ? intervalMs : frameIntervalMs + ALPHA * (intervalMs - frameIntervalMs);
+        updateStride();
+    }
+
+    public synchronized void recordProcessingTime(double elapsedMs) {
+        processingMs = processingMs == 0 ? elapsedMs : processingMs + ALPHA * (elapsedMs - processingMs);
+        updateStride();
+    }
+
+    public synchronized int getStride() {
+        return stride;
+    }
+
+    private void updateStride() {
+        if (frameIntervalMs <= 0 || processingMs <= 0) {
+            return;
+        }
+        int required = (int) Math.ceil(processingMs / frameIntervalMs);
+        stride = Math.max(1, Math.min(required, maxSkip + 1));
+    }
+}
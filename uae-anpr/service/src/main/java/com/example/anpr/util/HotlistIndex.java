@@ -0,0 +1,254 @@
+package com.example.anpr.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped set of {@link PlateKey} values with a small bit
+ * mask per key telling which lists contain the plate. The file holds two
+ * open-addressing tables: one keyed by the exact plate code and one keyed by
+ * the {@link PlateKey#fold folded} code for fuzzy matching. Tables live
+ * off-heap in the page cache, so even lists of millions of plates add nothing
+ * to the Java heap and a lookup is a handful of memory reads.
+ *
+ * <p>Each slot stores {@code (key << 8) | listMask}; an empty slot is zero.
+ */
+public final class HotlistIndex {
+
+    public static final int MAX_LISTS = 8;
+
+    private static final int MAGIC = 0x484F544C; // "HOTL"
+    private static final int VERSION = 1;
+    /**
+     * Slots per table. Both tables of 8-byte slots plus the header must fit in
+     * one {@link FileChannel#map} of at most {@link Integer#MAX_VALUE} bytes,
+     * which allows about 33M distinct plates.
+     */
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private final List<String> lists;
+    private final LongBuffer exact;
+    private final LongBuffer fuzzy;
+    private final int exactMask;
+    private final int fuzzyMask;
+    private final long size;
+
+    private HotlistIndex(List<String> lists, LongBuffer exact, LongBuffer fuzzy, long size) {
+        this.lists = lists;
+        this.exact = exact;
+        this.fuzzy = fuzzy;
+        this.exactMask = exact.capacity() - 1;
+        this.fuzzyMask = fuzzy.capacity() - 1;
+        this.size = size;
+    }
+
+    public static HotlistIndex open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+                throw new IOException("Not a hotlist index: " + path);
+            }
+            int listCount = mapped.getInt();
+            List<String> lists = new ArrayList<>(listCount);
+            for (int i = 0; i < listCount; i++) {
+                byte[] name = new byte[mapped.getShort()];
+                mapped.get(name);
+                lists.add(new String(name, StandardCharsets.UTF_8));
+            }
+            mapped.position(align(mapped.position()));
+            int exactCapacity = mapped.getInt();
+            int fuzzyCapacity = mapped.getInt();
+            long size = mapped.getLong();
+            LongBuffer exact = slice(mapped, mapped.position(), exactCapacity);
+            LongBuffer fuzzy = slice(mapped, mapped.position() + exactCapacity * 8, fuzzyCapacity);
+            return new HotlistIndex(List.copyOf(lists), exact, fuzzy, size);
+        }
+    }
+
+    public List<String> lists() {
+        return lists;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the list mask for {@code key}, or 0 when the plate is not listed.
+     */
+    public int lookup(long key) {
+        return probe(exact, exactMask, key);
+    }
+
+    public int lookupFuzzy(long foldedKey) {
+        return probe(fuzzy, fuzzyMask, foldedKey);
+    }
+
+    public List<String> listNames(int mask) {
+        List<String> names = new ArrayList<>(Integer.bitCount(mask));
+        for (int i = 0; i < lists.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                names.add(lists.get(i));
+            }
+        }
+        return names;
+    }
+
+    private static int probe(LongBuffer table, int mask, long key) {
+        if (key == PlateKey.INVALID) {
+            return 0;
+        }
+        int slot = (int) (mix(key) & mask);
+        while (true) {
+            long entry = table.get(slot);
+            if (entry == 0) {
+                return 0;
+            }
+            if ((entry >>> 8) == key) {
+                return (int) (entry & 0xFF);
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static LongBuffer slice(ByteBuffer buffer, int offset, int longs) {
+        return buffer.slice(offset, longs * 8).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+
+    /**
+     * Collects plate keys in primitive arrays and writes them out as an index file.
+     */
+    public static final class Builder {
+
+        private final List<String> lists = new ArrayList<>();
+        private long[] exactEntries = new long[1024];
+        private long[] fuzzyEntries = new long[1024];
+        private int count;
+
+        /**
+         * Adds a plate to the named list. A blank emirate stores the plate under
+         * {@link PlateKey#ANY_EMIRATE}. Returns {@code false} when the emirate
+         * is not recognised or the plate cannot be packed into a key.
+         */
+        public boolean add(String emirate, String letter, String number, String list) {
+            if (PlateKey.isUnknownEmirate(emirate)) {
+                return false;
+            }
+            int emirateCode = PlateKey.emirateCode(emirate);
+            String code = PlateKey.code(letter, number);
+            long key = PlateKey.pack(emirateCode, code);
+            if (key == PlateKey.INVALID) {
+                return false;
+            }
+            long folded = PlateKey.pack(emirateCode, PlateKey.fold(code));
+            int bit = listBit(list);
+            if (count == exactEntries.length) {
+                exactEntries = Arrays.copyOf(exactEntries, count * 2);
+                fuzzyEntries = Arrays.copyOf(fuzzyEntries, count * 2);
+            }
+            exactEntries[count] = (key << 8) | bit;
+            fuzzyEntries[count] = (folded << 8) | bit;
+            count++;
+            return true;
+        }
+
+        public void write(Path target) throws IOException {
+            long[] exact = buildTable(exactEntries, count);
+            long[] fuzzy = buildTable(fuzzyEntries, count);
+            int header = 12;
+            for (String list : lists) {
+                header += 2 + list.getBytes(StandardCharsets.UTF_8).length;
+            }
+            header = align(header) + 16;
+            long total = header + (exact.length + (long) fuzzy.length) * 8;
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+                out.order(ByteOrder.LITTLE_ENDIAN);
+                out.putInt(MAGIC).putInt(VERSION).putInt(lists.size());
+                for (String list : lists) {
+                    byte[] name = list.getBytes(StandardCharsets.UTF_8);
+                    out.putShort((short) name.length).put(name);
+                }
+                out.position(align(out.position()));
+                out.putInt(exact.length).putInt(fuzzy.length).putLong(countDistinct(exact));
+                out.asLongBuffer().put(exact).put(fuzzy);
+                out.force();
+            }
+        }
+
+        private int listBit(String list) {
+            String name = list == null || list.isBlank() ? "default" : list.trim();
+            int index = lists.indexOf(name);
+            if (index < 0) {
+                if (lists.size() == MAX_LISTS) {
+                    throw new IllegalArgumentException("Hotlists support at most " + MAX_LISTS + " lists");
+                }
+                lists.add(name);
+                index = lists.size() - 1;
+            }
+            return 1 << index;
+        }
+
+        private static long[] buildTable(long[] entries, int count) {
+            long[] sorted = Arrays.copyOf(entries, count);
+            Arrays.sort(sorted);
+            int capacity = Integer.highestOneBit(Math.max(count * 2, 16) - 1) << 1;
+            if (capacity > MAX_CAPACITY) {
+                throw new IllegalArgumentException("Hotlist too large: " + count + " entries, at most "
+                        + MAX_CAPACITY / 2 + " are supported");
+            }
+            long[] table = new long[capacity];
+            int mask = capacity - 1;
+            int i = 0;
+            while (i < count) {
+                long key = sorted[i] >>> 8;
+                long lists = 0;
+                while (i < count && (sorted[i] >>> 8) == key) {
+                    lists |= sorted[i] & 0xFF;
+                    i++;
+                }
+                int slot = (int) (mix(key) & mask);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = (key << 8) | lists;
+            }
+            return table;
+        }
+
+        private static long countDistinct(long[] table) {
+            long distinct = 0;
+            for (long entry : table) {
+                if (entry != 0) {
+                    distinct++;
+                }
+            }
+            return distinct;
+        }
+    }
+}
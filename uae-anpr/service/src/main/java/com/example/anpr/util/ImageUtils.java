@@ -1,15 +1,17 @@
 package com.example.anpr.util;
 
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.IntPointer;
 import org.bytedeco.opencv.global.opencv_core;
 import org.bytedeco.opencv.global.opencv_imgcodecs;
 import org.bytedeco.opencv.global.opencv_imgproc;
 import org.bytedeco.opencv.opencv_core.Mat;
-import org.bytedeco.opencv.opencv_core.MatOfByte;
 import org.bytedeco.opencv.opencv_core.Rect;
 import org.bytedeco.opencv.opencv_core.Scalar;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
+import java.nio.ByteBuffer;
 
 public final class ImageUtils {
 
@@ -17,10 +19,47 @@ public final class ImageUtils {
     }
 
     public static Mat readImage(byte[] data) {
-        MatOfByte mob = new MatOfByte(data);
-        Mat image = opencv_imgcodecs.imdecode(mob, opencv_imgcodecs.IMREAD_COLOR);
-        mob.releaseReference();
-        return image;
+        try (BytePointer pointer = new BytePointer(data);
+             Mat buffer = new Mat(1, data.length, opencv_core.CV_8UC1, pointer)) {
+            return opencv_imgcodecs.imdecode(buffer, opencv_imgcodecs.IMREAD_COLOR);
+        }
+    }
+
+    /**
+     * Decodes an encoded image held in a direct (e.g. memory-mapped) buffer
+     * without copying it onto the Java heap first.
+     */
+    public static Mat readImage(ByteBuffer data) {
+        try (BytePointer pointer = new BytePointer(data);
+             Mat buffer = new Mat(1, data.remaining(), opencv_core.CV_8UC1, pointer)) {
+            return opencv_imgcodecs.imdecode(buffer, opencv_imgcodecs.IMREAD_COLOR);
+        }
+    }
+
+    public static byte[] encodeJpeg(Mat image, int quality) {
+        try (BytePointer buffer = new BytePointer();
+             IntPointer params = new IntPointer(opencv_imgcodecs.IMWRITE_JPEG_QUALITY, quality)) {
+            if (!opencv_imgcodecs.imencode(".jpg", image, buffer, params)) {
+                throw new IllegalStateException("JPEG encoding failed");
+            }
+            byte[] bytes = new byte[(int) buffer.limit()];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+
+    /**
+     * Returns a copy of {@code src} scaled down to at most {@code maxWidth} pixels wide.
+     */
+    public static Mat downscale(Mat src, int maxWidth) {
+        if (maxWidth <= 0 || src.cols() <= maxWidth) {
+            return src.clone();
+        }
+        double r = maxWidth / (double) src.cols();
+        Mat resized = new Mat();
+        opencv_imgproc.resize(src, resized, new org.bytedeco.opencv.opencv_core.Size(maxWidth, (int) Math.round(src.rows() * r)),
+                0, 0, opencv_imgproc.INTER_AREA);
+        return resized;
     }
 
     public static BufferedImage matToBufferedImage(Mat mat) {
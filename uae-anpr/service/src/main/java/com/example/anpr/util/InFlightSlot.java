@@ -0,0 +1,60 @@
+package com.example.anpr.util;
+
+/**
+ * Admission control for a connection that keeps at most one item in
+ * processing and one waiting. An item offered while the connection is idle
+ * starts right away; one offered while busy becomes the waiting item and
+ * displaces any earlier waiting item, which the caller reports as dropped.
+ * {@link #complete} hands over the waiting item, if any, as the next one in
+ * processing.
+ */
+public final class InFlightSlot<T> {
+
+    private boolean busy;
+    private boolean closed;
+    private T pending;
+
+    /**
+     * @return {@code start} the item to start processing now, {@code null}
+     *         when it was parked; {@code dropped} the waiting item it
+     *         displaced. Both are {@code null} once closed.
+     */
+    public synchronized Offer<T> offer(T item) {
+        if (closed) {
+            return new Offer<>(null, null);
+        }
+        if (!busy) {
+            busy = true;
+            return new Offer<>(item, null);
+        }
+        T dropped = pending;
+        pending = item;
+        return new Offer<>(null, dropped);
+    }
+
+    /**
+     * Marks the item in processing as done and returns the waiting item to
+     * process next, or {@code null} when the slot becomes idle.
+     */
+    public synchronized T complete() {
+        T next = closed ? null : pending;
+        pending = null;
+        busy = next != null;
+        return next;
+    }
+
+    /**
+     * Discards the waiting item and rejects further offers.
+     */
+    public synchronized void close() {
+        closed = true;
+        pending = null;
+    }
+
+    public synchronized boolean isBusy() {
+        return busy;
+    }
+
+    public record Offer<T>(T start, T dropped) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.anpr.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Single-slot hand-off between a producer and a consumer where only the most
+ * recent item matters. Offering a new item replaces any item the consumer has
+ * not picked up yet; the replaced item is passed to {@code onDrop} so native
+ * resources can be released.
+ */
+public class LatestFrameBuffer<T> {
+
+    private final Consumer<T> onDrop;
+    private final AtomicLong dropped = new AtomicLong();
+    private T slot;
+    private boolean closed;
+
+    public LatestFrameBuffer(Consumer<T> onDrop) {
+        this.onDrop = onDrop;
+    }
+
+    public void offer(T item) {
+        T replaced;
+        synchronized (this) {
+            if (closed) {
+                replaced = item;
+            } else {
+                replaced = slot;
+                slot = item;
+                notifyAll();
+            }
+        }
+        if (replaced != null) {
+            dropped.incrementAndGet();
+            onDrop.accept(replaced);
+        }
+    }
+
+    /**
+     * Waits up to {@code timeout} for an item and removes it from the buffer.
+     * Returns {@code null} on timeout or once the buffer has been closed and drained.
+     */
+    public synchronized T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (slot == null && !closed) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        T item = slot;
+        slot = null;
+        return item;
+    }
+
+    /**
+     * Rejects new items but leaves the pending one for the consumer, for a
+     * producer that reached the end of its input. {@link #poll} returns
+     * {@code null} once that item has been taken.
+     */
+    public synchronized void finish() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Rejects new items and releases the pending one, for a consumer that
+     * is going away.
+     */
+    public void close() {
+        T remaining;
+        synchronized (this) {
+            closed = true;
+            remaining = slot;
+            slot = null;
+            notifyAll();
+        }
+        if (remaining != null) {
+            onDrop.accept(remaining);
+        }
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.anpr.util;
+
+import com.example.anpr.exception.UploadTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Passes a stream through unchanged but fails with
+ * {@link UploadTooLargeException} once more than {@code limit} bytes have
+ * been read, so a streamed upload is cut off without buffering it first.
+ */
+public final class LimitedInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long count;
+
+    public LimitedInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long bytes) {
+        count += bytes;
+        if (count > limit) {
+            throw new UploadTooLargeException("Upload exceeds " + limit + " bytes");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.anpr.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Packs a plate identity (emirate, letter code and number) into a single
+ * {@code long} so it can be stored in primitive hash tables.
+ *
+ * <p>Layout, from the least significant bit: 8 characters of 6 bits each
+ * (0 = padding, 1-10 = digits, 11-36 = letters), 3 bits of emirate code and a
+ * marker bit that keeps every valid key non-zero. Keys therefore fit in 52 bits.
+ */
+public final class PlateKey {
+
+    public static final List<String> EMIRATES = List.of(
+            "Abu Dhabi", "Dubai", "Sharjah", "Ajman", "Umm Al Quwain", "Ras Al Khaimah", "Fujairah");
+    public static final int MAX_CODE_LENGTH = 8;
+    public static final long INVALID = -1L;
+
+    /**
+     * Emirate code of plates stored without an emirate; they match any emirate.
+     */
+    public static final int ANY_EMIRATE = 0;
+
+    private static final int CHAR_BITS = 6;
+    private static final long MARKER = 1L << (MAX_CODE_LENGTH * CHAR_BITS + 3);
+
+    private static final Map<String, Integer> ALIASES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < EMIRATES.size(); i++) {
+            ALIASES.put(EMIRATES.get(i).toLowerCase(Locale.ROOT), i + 1);
+        }
+        alias(1, "AD", "AUH", "ابوظبي", "أبوظبي", "ابو ظبي", "أبو ظبي");
+        alias(2, "DXB", "دبي");
+        alias(3, "SHJ", "الشارقة");
+        alias(4, "AJM", "عجمان");
+        alias(5, "UAQ", "ام القيوين", "أم القيوين");
+        alias(6, "RAK", "رأس الخيمة", "راس الخيمة");
+        alias(7, "FUJ", "الفجيرة");
+    }
+
+    private PlateKey() {
+    }
+
+    /**
+     * Returns 1-7 for a known emirate name, common abbreviation (e.g.
+     * {@code RAK}) or Arabic name, case-insensitive, and 0 otherwise.
+     */
+    public static int emirateCode(String emirate) {
+        if (emirate == null) {
+            return 0;
+        }
+        return ALIASES.getOrDefault(normalize(emirate), 0);
+    }
+
+    /**
+     * Whether {@code emirate} is a non-blank value that {@link #emirateCode}
+     * does not recognise.
+     */
+    public static boolean isUnknownEmirate(String emirate) {
+        return emirate != null && !emirate.isBlank() && emirateCode(emirate) == 0;
+    }
+
+    private static void alias(int code, String... names) {
+        for (String name : names) {
+            ALIASES.put(normalize(name), code);
+        }
+    }
+
+    private static String normalize(String emirate) {
+        return emirate.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public static long pack(int emirateCode, CharSequence code) {
+        if (code == null || code.isEmpty() || code.length() > MAX_CODE_LENGTH || emirateCode < 0 || emirateCode > 7) {
+            return INVALID;
+        }
+        long key = 0;
+        for (int i = 0; i < code.length(); i++) {
+            int value = charValue(code.charAt(i));
+            if (value == 0) {
+                return INVALID;
+            }
+            key = (key << CHAR_BITS) | value;
+        }
+        return MARKER | ((long) emirateCode << (MAX_CODE_LENGTH * CHAR_BITS)) | key;
+    }
+
+    public static long pack(String emirate, String letter, String number) {
+        return pack(emirateCode(emirate), code(letter, number));
+    }
+
+    public static String code(String letter, String number) {
+        String code = (letter == null ? "" : letter.trim()) + (number == null ? "" : number.trim());
+        return code.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Maps characters that OCR commonly confuses onto a single representative,
+     * so that e.g. {@code B12O45} and {@code 812045} fold to the same code.
+     */
+    public static String fold(CharSequence code) {
+        StringBuilder folded = new StringBuilder(code.length());
+        for (int i = 0; i < code.length(); i++) {
+            char c = Character.toUpperCase(code.charAt(i));
+            folded.append(switch (c) {
+                case 'O', 'D', 'Q' -> '0';
+                case 'I', 'L' -> '1';
+                case 'Z' -> '2';
+                case 'S' -> '5';
+                case 'G' -> '6';
+                case 'B' -> '8';
+                default -> c;
+            });
+        }
+        return folded.toString();
+    }
+
+    private static int charValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return 1 + (c - '0');
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return 11 + (c - 'A');
+        }
+        if (c >= 'a' && c <= 'z') {
+            return 11 + (c - 'a');
+        }
+        return 0;
+    }
+}
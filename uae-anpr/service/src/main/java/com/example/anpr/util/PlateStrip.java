@@ -0,0 +1,109 @@
+package com.example.anpr.util;
+
+import net.sourceforge.tess4j.Word;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Layout of a stitched OCR image: plate crops normalised to the same height
+ * are stacked top to bottom, separated by blank bands one plate tall, so that
+ * every plate ends up on its own text line(s). {@link #assign} maps the text
+ * lines Tesseract found back to the plates by their bounding boxes.
+ */
+public final class PlateStrip {
+
+    private final int plateHeight;
+    private final int count;
+
+    public PlateStrip(int plateHeight, int count) {
+        if (plateHeight < 8 || count < 1) {
+            throw new IllegalArgumentException("Invalid strip of " + count + " plates at " + plateHeight + " px");
+        }
+        this.plateHeight = plateHeight;
+        this.count = count;
+    }
+
+    public int padding() {
+        return plateHeight / 2;
+    }
+
+    /**
+     * Top row of plate {@code index} in the strip.
+     */
+    public int top(int index) {
+        return padding() + index * 2 * plateHeight;
+    }
+
+    public int height() {
+        return 2 * padding() + (2 * count - 1) * plateHeight;
+    }
+
+    /**
+     * Text per plate, lines of a two-row plate joined by a newline, or
+     * {@code null} for a plate whose text cannot be attributed with certainty:
+     * no line was found on it, a line reaches across the separator into a
+     * neighbouring plate, or a line sits in an adjacent separator band or in
+     * the margin above the first or below the last plate.
+     */
+    public String[] assign(List<Word> lines) {
+        List<List<Word>> perPlate = new ArrayList<>(count);
+        boolean[] ambiguous = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            perPlate.add(new ArrayList<>());
+        }
+        for (Word line : lines) {
+            if (line.getText() == null || line.getText().isBlank()) {
+                continue;
+            }
+            Rectangle box = line.getBoundingBox();
+            int first = -1;
+            int last = -1;
+            for (int i = 0; i < count; i++) {
+                if (box.y < top(i) + plateHeight && box.y + box.height > top(i)) {
+                    first = first < 0 ? i : first;
+                    last = i;
+                }
+            }
+            if (first < 0) {
+                if (box.y + box.height <= top(0)) {
+                    // Text in the top margin: only the first plate can own it.
+                    ambiguous[0] = true;
+                } else if (box.y >= top(count - 1) + plateHeight) {
+                    ambiguous[count - 1] = true;
+                } else {
+                    // Text in a separator band: blame both neighbours.
+                    int above = (box.y - padding()) / (2 * plateHeight);
+                    ambiguous[above] = true;
+                    ambiguous[above + 1] = true;
+                }
+            } else if (first != last) {
+                for (int i = first; i <= last; i++) {
+                    ambiguous[i] = true;
+                }
+            } else {
+                perPlate.get(first).add(line);
+            }
+        }
+        String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            List<Word> plateLines = perPlate.get(i);
+            if (ambiguous[i] || plateLines.isEmpty()) {
+                continue;
+            }
+            plateLines.sort(Comparator.comparingInt((Word word) -> word.getBoundingBox().y)
+                    .thenComparingInt(word -> word.getBoundingBox().x));
+            StringBuilder text = new StringBuilder();
+            for (Word line : plateLines) {
+                if (!text.isEmpty()) {
+                    text.append('\n');
+                }
+                text.append(line.getText().strip());
+            }
+            texts[i] = text.toString();
+        }
+        return texts;
+    }
+}
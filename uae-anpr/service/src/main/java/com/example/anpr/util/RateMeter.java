@@ -0,0 +1,45 @@
+package com.example.anpr.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event counter that also reports an exponentially smoothed per-second rate.
+ */
+public class RateMeter {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final double ALPHA = 0.5;
+
+    private final AtomicLong total = new AtomicLong();
+    private long windowStart = System.nanoTime();
+    private long windowCount;
+    private double rate;
+
+    public void mark() {
+        total.incrementAndGet();
+        synchronized (this) {
+            windowCount++;
+            roll(System.nanoTime());
+        }
+    }
+
+    public long getCount() {
+        return total.get();
+    }
+
+    public synchronized double getRate() {
+        roll(System.nanoTime());
+        return rate;
+    }
+
+    private void roll(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed < WINDOW_NANOS) {
+            return;
+        }
+        double current = windowCount * (double) WINDOW_NANOS / elapsed;
+        rate = rate == 0 ? current : rate + ALPHA * (current - rate);
+        windowStart = now;
+        windowCount = 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.anpr.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering a whole recognition request; its stages share the same
+ * request id.
+ */
+@Name("com.example.anpr.Recognition")
+@Label("ANPR Recognition")
+@Category({"ANPR"})
+@Description("End-to-end duration of one recognition request")
+@StackTrace(false)
+class RecognitionEvent extends Event {
+
+    @Label("Request Id")
+    long requestId;
+
+    @Label("Lane")
+    String lane;
+
+    @Label("Detections")
+    int detections;
+
+    @Label("Failed")
+    boolean failed;
+}
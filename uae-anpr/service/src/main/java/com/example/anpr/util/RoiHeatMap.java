@@ -0,0 +1,218 @@
+package com.example.anpr.util;
+
+/**
+ * Coarse heat map of where plates appear in a fixed camera's frame. The frame
+ * is divided into {@code gridSize x gridSize} cells and every detection box
+ * adds one hit to each cell it overlaps. The region of interest is the box
+ * spanned by the row and column marginals after trimming a small fraction of
+ * hits from each side, so a handful of false positives cannot stretch it.
+ * Once a cell reaches {@code decayLimit} hits every cell is halved, so the map
+ * follows a camera that drifts instead of remembering its whole history.
+ * Not thread-safe.
+ */
+public final class RoiHeatMap {
+
+    public static final int DEFAULT_DECAY_LIMIT = 4096;
+
+    private final int gridSize;
+    private final int width;
+    private final int height;
+    private final int decayLimit;
+    private final int[] cells;
+    private long samples;
+
+    public RoiHeatMap(int gridSize, int width, int height) {
+        this(gridSize, width, height, DEFAULT_DECAY_LIMIT);
+    }
+
+    public RoiHeatMap(int gridSize, int width, int height, int decayLimit) {
+        this(gridSize, width, height, decayLimit, 0, new int[gridSize * gridSize]);
+    }
+
+    private RoiHeatMap(int gridSize, int width, int height, int decayLimit, long samples, int[] cells) {
+        if (gridSize < 2 || width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid heat map " + gridSize + " cells over " + width + "x" + height);
+        }
+        if (decayLimit < 2) {
+            throw new IllegalArgumentException("Decay limit must be at least 2, got " + decayLimit);
+        }
+        this.gridSize = gridSize;
+        this.width = width;
+        this.height = height;
+        this.decayLimit = decayLimit;
+        this.samples = samples;
+        this.cells = cells;
+    }
+
+    public static RoiHeatMap restore(int gridSize, int width, int height, int decayLimit, long samples, int[] cells) {
+        if (cells == null || cells.length != gridSize * gridSize) {
+            throw new IllegalArgumentException("Heat map has " + (cells == null ? 0 : cells.length)
+                    + " cells, expected " + gridSize * gridSize);
+        }
+        RoiHeatMap heatMap = new RoiHeatMap(gridSize, width, height, decayLimit, samples, cells.clone());
+        // A map saved with a higher limit decays down to this one.
+        while (max(heatMap.cells) >= decayLimit) {
+            halve(heatMap.cells);
+        }
+        return heatMap;
+    }
+
+    public int gridSize() {
+        return gridSize;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public int[] cells() {
+        return cells.clone();
+    }
+
+    /**
+     * Adds one detection box. Returns {@code true} if this pushed a cell to
+     * the decay limit and the whole map was halved.
+     */
+    public boolean add(Region box) {
+        Region clipped = box.clip(width, height);
+        if (clipped == null) {
+            return false;
+        }
+        int col0 = clipped.x() * gridSize / width;
+        int col1 = (clipped.right() - 1) * gridSize / width;
+        int row0 = clipped.y() * gridSize / height;
+        int row1 = (clipped.bottom() - 1) * gridSize / height;
+        boolean decay = false;
+        for (int row = row0; row <= row1; row++) {
+            for (int col = col0; col <= col1; col++) {
+                decay |= ++cells[row * gridSize + col] >= decayLimit;
+            }
+        }
+        if (decay) {
+            halve(cells);
+        }
+        samples++;
+        return decay;
+    }
+
+    /**
+     * Region covering all but {@code trim} of the hits on each side of each
+     * axis, grown by {@code margin} times its own size on every side and clipped
+     * to the frame; {@code null} while the map is empty.
+     */
+    public Region region(double trim, double margin) {
+        long[] columns = new long[gridSize];
+        long[] rows = new long[gridSize];
+        long total = 0;
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                int hits = cells[row * gridSize + col];
+                columns[col] += hits;
+                rows[row] += hits;
+                total += hits;
+            }
+        }
+        if (total == 0) {
+            return null;
+        }
+        long cut = (long) (total * trim);
+        int col0 = lowerBound(columns, cut);
+        int col1 = upperBound(columns, cut);
+        int row0 = lowerBound(rows, cut);
+        int row1 = upperBound(rows, cut);
+        int x = col0 * width / gridSize;
+        int y = row0 * height / gridSize;
+        int right = (col1 + 1) * width / gridSize;
+        int bottom = (row1 + 1) * height / gridSize;
+        int padX = (int) Math.ceil((right - x) * margin);
+        int padY = (int) Math.ceil((bottom - y) * margin);
+        return new Region(x - padX, y - padY, right - x + 2 * padX, bottom - y + 2 * padY).clip(width, height);
+    }
+
+    private static int max(int[] cells) {
+        int max = 0;
+        for (int cell : cells) {
+            max = Math.max(max, cell);
+        }
+        return max;
+    }
+
+    private static void halve(int[] cells) {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] >>= 1;
+        }
+    }
+
+    private static int lowerBound(long[] histogram, long cut) {
+        long cumulative = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            cumulative += histogram[i];
+            if (cumulative > cut) {
+                return i;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    private static int upperBound(long[] histogram, long cut) {
+        long cumulative = 0;
+        for (int i = histogram.length - 1; i >= 0; i--) {
+            cumulative += histogram[i];
+            if (cumulative > cut) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Axis-aligned pixel rectangle.
+     */
+    public record Region(int x, int y, int width, int height) {
+
+        public int right() {
+            return x + width;
+        }
+
+        public int bottom() {
+            return y + height;
+        }
+
+        public long area() {
+            return (long) width * height;
+        }
+
+        public boolean contains(Region other) {
+            return other.x >= x && other.y >= y && other.right() <= right() && other.bottom() <= bottom();
+        }
+
+        public Region union(Region other) {
+            if (other == null) {
+                return this;
+            }
+            int ux = Math.min(x, other.x);
+            int uy = Math.min(y, other.y);
+            return new Region(ux, uy, Math.max(right(), other.right()) - ux, Math.max(bottom(), other.bottom()) - uy);
+        }
+
+        /**
+         * Intersection with a {@code frameWidth x frameHeight} frame, or
+         * {@code null} when nothing remains.
+         */
+        public Region clip(int frameWidth, int frameHeight) {
+            int cx = Math.max(x, 0);
+            int cy = Math.max(y, 0);
+            int w = Math.min(right(), frameWidth) - cx;
+            int h = Math.min(bottom(), frameHeight) - cy;
+            return w > 0 && h > 0 ? new Region(cx, cy, w, h) : null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.anpr.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Appends one JSON document per line to {@code <prefix>-<date>-<n>.jsonl}
+ * files, starting a new file every day and whenever the current one exceeds
+ * {@code maxBytes}.
+ */
+public class RollingJsonlWriter implements Closeable {
+
+    private final Path directory;
+    private final String prefix;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+    private BufferedWriter writer;
+    private LocalDate date;
+    private int sequence;
+    private long written;
+
+    public RollingJsonlWriter(Path directory, String prefix, long maxBytes, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.maxBytes = maxBytes;
+        this.objectMapper = objectMapper;
+    }
+
+    public synchronized void write(Object value) throws IOException {
+        String line = objectMapper.writeValueAsString(value);
+        int length = line.getBytes(StandardCharsets.UTF_8).length + 1;
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        if (writer == null || !today.equals(date) || written + length > maxBytes) {
+            roll(today);
+        }
+        writer.write(line);
+        writer.write('\n');
+        writer.flush();
+        written += length;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void roll(LocalDate today) throws IOException {
+        close();
+        if (!today.equals(date)) {
+            date = today;
+            sequence = 0;
+        }
+        Path file = directory.resolve(String.format("%s-%s-%03d.jsonl", prefix, date, sequence));
+        // Resume the newest file of the day after a restart, but skip files that are already full.
+        while (Files.exists(file) && Files.size(file) >= maxBytes) {
+            sequence++;
+            file = directory.resolve(String.format("%s-%s-%03d.jsonl", prefix, date, sequence));
+        }
+        written = Files.exists(file) ? Files.size(file) : 0;
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        sequence++;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.anpr.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one pipeline stage of a recognition request.
+ */
+@Name("com.example.anpr.Stage")
+@Label("ANPR Stage")
+@Category({"ANPR"})
+@Description("Duration of one recognition pipeline stage")
+@StackTrace(false)
+class StageEvent extends Event {
+
+    @Label("Request Id")
+    long requestId;
+
+    @Label("Stage")
+    String stage;
+}
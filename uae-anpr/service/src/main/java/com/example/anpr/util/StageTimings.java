@@ -0,0 +1,160 @@
+package com.example.anpr.util;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-request timing context. Each pipeline stage is measured through a
+ * {@link Span}, which accumulates wall time under the stage name and emits a
+ * {@link StageEvent} to JDK Flight Recorder. Repeated stages (one OCR call per
+ * plate) are summed and counted. Instances are confined to the request thread.
+ */
+public final class StageTimings {
+
+    public static final String DECODE = "decode";
+    public static final String PREPROCESS = "preprocess";
+    public static final String INFERENCE = "inference";
+    public static final String NMS = "nms";
+    public static final String OCR = "ocr";
+    public static final String QUEUE = "queue";
+
+    private static final AtomicLong REQUEST_IDS = new AtomicLong();
+
+    private final long requestId = REQUEST_IDS.incrementAndGet();
+    private final String lane;
+    private final LongSupplier clock;
+    private final long startNanos;
+    private final RecognitionEvent event = new RecognitionEvent();
+    private final Map<String, long[]> stages = new LinkedHashMap<>();
+    private long endNanos;
+
+    public StageTimings() {
+        this(null);
+    }
+
+    /**
+     * @param lane priority lane the request was classified into, or
+     *             {@code null} for the default lane
+     */
+    public StageTimings(String lane) {
+        this(lane, System::nanoTime);
+    }
+
+    /**
+     * @param clock nanosecond time source for the request and its stages;
+     *              tests pass a synthetic one
+     */
+    public StageTimings(String lane, LongSupplier clock) {
+        this.lane = lane;
+        this.clock = clock;
+        event.begin();
+        this.startNanos = clock.getAsLong();
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public String getLane() {
+        return lane;
+    }
+
+    public Span begin(String stage) {
+        return new Span(stage);
+    }
+
+    /**
+     * Stops the request clock and commits the request-level JFR event. Only the
+     * first call has an effect.
+     */
+    public void finish(int detections, boolean failed) {
+        if (endNanos != 0) {
+            return;
+        }
+        endNanos = clock.getAsLong();
+        event.end();
+        if (event.shouldCommit()) {
+            event.requestId = requestId;
+            event.lane = lane;
+            event.detections = detections;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    public long totalNanos() {
+        return (endNanos != 0 ? endNanos : clock.getAsLong()) - startNanos;
+    }
+
+    /**
+     * Stage durations in milliseconds, in the order the stages first ran, with
+     * the overall request time under {@code total}.
+     */
+    public Map<String, Double> toMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        stages.forEach((stage, value) -> millis.put(stage, value[0] / 1_000_000.0));
+        millis.put("total", totalNanos() / 1_000_000.0);
+        return millis;
+    }
+
+    /**
+     * Formats the timings as a {@code Server-Timing} header value, e.g.
+     * {@code inference;dur=41.2, ocr;dur=18.0;desc="2 calls", total;dur=66.5}.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        stages.forEach((stage, value) -> {
+            header.append(stage).append(";dur=").append(format(value[0]));
+            if (value[1] > 1) {
+                header.append(";desc=\"").append(value[1]).append(" calls\"");
+            }
+            header.append(", ");
+        });
+        return header.append("total;dur=").append(format(totalNanos())).toString();
+    }
+
+    void add(String stage, long nanos) {
+        long[] value = stages.computeIfAbsent(stage, key -> new long[2]);
+        value[0] += nanos;
+        value[1]++;
+    }
+
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * One timed execution of a stage; close it when the stage completes.
+     */
+    public final class Span implements AutoCloseable {
+
+        private final String stage;
+        private final StageEvent stageEvent = new StageEvent();
+        private final long start;
+        private boolean closed;
+
+        private Span(String stage) {
+            this.stage = stage;
+            stageEvent.begin();
+            this.start = clock.getAsLong();
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            add(stage, clock.getAsLong() - start);
+            stageEvent.end();
+            if (stageEvent.shouldCommit()) {
+                stageEvent.requestId = requestId;
+                stageEvent.stage = stage;
+                stageEvent.commit();
+            }
+        }
+    }
+}
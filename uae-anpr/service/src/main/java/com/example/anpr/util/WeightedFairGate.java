@@ -0,0 +1,226 @@
+package com.example.anpr.util;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits concurrent use of an engine to a fixed number of permits and hands
+ * freed permits to waiting lanes by weighted fair queuing. Every waiter gets a
+ * virtual finish tag {@code max(V, lane's last tag) + 1 / weight}; the waiter
+ * with the smallest tag is served next and {@code V} advances to its tag. A
+ * lane with weight 8 therefore gets eight permits for every one a weight-1
+ * lane gets while both are backlogged, and an idle lane cannot bank credit for
+ * later. This is proportional sharing, not strict priority: a queued
+ * low-weight waiter whose tag is already small is served before a heavier
+ * lane's later arrival. Uncontended acquisitions never wait.
+ */
+public final class WeightedFairGate {
+
+    private final String name;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, LaneState> lanes = new LinkedHashMap<>();
+    private int available;
+    private double virtualTime;
+
+    public WeightedFairGate(String name, int permits, Map<String, Integer> weights) {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("At least one lane is required");
+        }
+        this.name = name;
+        this.available = Math.max(1, permits);
+        weights.forEach((lane, weight) -> lanes.put(lane, new LaneState(Math.max(1, weight))));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Blocks until a permit is granted to {@code lane}. Close the returned
+     * permit to hand it to the next waiter.
+     */
+    public Permit acquire(String lane) throws InterruptedException {
+        LaneState state = lanes.get(lane);
+        if (state == null) {
+            throw new IllegalArgumentException("Unknown lane '" + lane + "'");
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            double previous = state.lastTag;
+            double tag = Math.max(virtualTime, previous) + 1.0 / state.weight;
+            state.lastTag = tag;
+            if (available > 0 && !hasWaiters()) {
+                available--;
+                virtualTime = tag;
+                return grant(state, start);
+            }
+            Waiter waiter = new Waiter(virtualTime, previous, tag, lock.newCondition());
+            state.queue.addLast(waiter);
+            try {
+                while (!waiter.granted) {
+                    waiter.condition.await();
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    release();
+                } else {
+                    withdraw(state, waiter);
+                }
+                throw e;
+            }
+            return grant(state, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, LaneSnapshot> snapshot() {
+        lock.lock();
+        try {
+            Map<String, LaneSnapshot> snapshot = new LinkedHashMap<>();
+            lanes.forEach((lane, state) -> snapshot.put(lane, new LaneSnapshot(state.weight, state.queue.size(),
+                    state.inFlight, state.granted, state.waitNanos, state.maxWaitNanos)));
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Permit grant(LaneState state, long start) {
+        long waited = System.nanoTime() - start;
+        state.inFlight++;
+        state.granted++;
+        state.waitNanos += waited;
+        state.maxWaitNanos = Math.max(state.maxWaitNanos, waited);
+        return new Permit(state, waited);
+    }
+
+    /**
+     * Removes a waiter that gave up and recomputes the tags of the lane's
+     * later waiters as if it had never arrived, each from the virtual time at
+     * its own arrival, so an interrupted request neither pushes them back nor
+     * lets them jump ahead of other lanes. Must be called with the lock held.
+     */
+    private static void withdraw(LaneState state, Waiter waiter) {
+        double previous = waiter.previousTag;
+        boolean after = false;
+        for (Waiter queued : state.queue) {
+            if (after) {
+                queued.previousTag = previous;
+                queued.tag = Math.max(queued.arrival, previous) + 1.0 / state.weight;
+                previous = queued.tag;
+            }
+            after |= queued == waiter;
+        }
+        state.queue.remove(waiter);
+        state.lastTag = previous;
+    }
+
+    private boolean hasWaiters() {
+        for (LaneState state : lanes.values()) {
+            if (!state.queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands one permit to the waiter with the smallest tag, or returns it to
+     * the pool. Must be called with the lock held.
+     */
+    private void release() {
+        Waiter next = null;
+        LaneState nextLane = null;
+        for (LaneState state : lanes.values()) {
+            Waiter head = state.queue.peekFirst();
+            if (head != null && (next == null || head.tag < next.tag)) {
+                next = head;
+                nextLane = state;
+            }
+        }
+        if (next == null) {
+            available++;
+            return;
+        }
+        nextLane.queue.pollFirst();
+        virtualTime = next.tag;
+        next.granted = true;
+        next.condition.signal();
+    }
+
+    private static final class LaneState {
+        private final int weight;
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        private double lastTag;
+        private int inFlight;
+        private long granted;
+        private long waitNanos;
+        private long maxWaitNanos;
+
+        private LaneState(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final class Waiter {
+        private final double arrival;
+        private final Condition condition;
+        private double previousTag;
+        private double tag;
+        private boolean granted;
+
+        private Waiter(double arrival, double previousTag, double tag, Condition condition) {
+            this.arrival = arrival;
+            this.previousTag = previousTag;
+            this.tag = tag;
+            this.condition = condition;
+        }
+    }
+
+    public final class Permit implements AutoCloseable {
+
+        private final LaneState state;
+        private final long waitNanos;
+        private boolean closed;
+
+        private Permit(LaneState state, long waitNanos) {
+            this.state = state;
+            this.waitNanos = waitNanos;
+        }
+
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                state.inFlight--;
+                release();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public record LaneSnapshot(int weight, int queued, int inFlight, long granted, long waitNanos, long maxWaitNanos) {
+
+        public double meanWaitMs() {
+            return granted == 0 ? 0.0 : waitNanos / (double) granted / 1_000_000.0;
+        }
+
+        public double maxWaitMs() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.anpr.web;
+
+import com.example.anpr.dto.SlowRequestSample;
+import com.example.anpr.service.SlowRequestSampler;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/diagnostics")
+public class DiagnosticsController {
+
+    private final SlowRequestSampler slowRequestSampler;
+
+    public DiagnosticsController(SlowRequestSampler slowRequestSampler) {
+        this.slowRequestSampler = slowRequestSampler;
+    }
+
+    @GetMapping("/slow-requests")
+    public List<SlowRequestSample> slowRequests() {
+        return slowRequestSampler.list();
+    }
+
+    @GetMapping("/slow-requests/{id}/image")
+    public ResponseEntity<byte[]> slowRequestImage(@PathVariable("id") long id) {
+        return slowRequestSampler.find(id)
+                .filter(sample -> sample.image() != null)
+                .map(sample -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(sample.info().getContentType()))
+                        .body(sample.image()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
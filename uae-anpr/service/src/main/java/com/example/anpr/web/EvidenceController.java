@@ -0,0 +1,47 @@
+package com.example.anpr.web;
+
+import com.example.anpr.dto.EvidenceStatus;
+import com.example.anpr.exception.PlateProcessingException;
+import com.example.anpr.service.EvidenceService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/evidence")
+public class EvidenceController {
+
+    private final EvidenceService evidenceService;
+
+    public EvidenceController(EvidenceService evidenceService) {
+        this.evidenceService = evidenceService;
+    }
+
+    @GetMapping
+    public EvidenceStatus status() {
+        return evidenceService.status();
+    }
+
+    @GetMapping(value = "/{id}/crop", produces = MediaType.IMAGE_JPEG_VALUE)
+    public ResponseEntity<byte[]> crop(@PathVariable("id") long id) {
+        return read(id, true);
+    }
+
+    @GetMapping(value = "/{id}/frame", produces = MediaType.IMAGE_JPEG_VALUE)
+    public ResponseEntity<byte[]> frame(@PathVariable("id") long id) {
+        return read(id, false);
+    }
+
+    private ResponseEntity<byte[]> read(long id, boolean crop) {
+        try {
+            return ResponseEntity.of(evidenceService.read(id, crop));
+        } catch (IOException e) {
+            throw new PlateProcessingException("Failed to read evidence " + id, e);
+        }
+    }
+}
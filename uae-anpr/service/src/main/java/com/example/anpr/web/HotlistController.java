@@ -0,0 +1,30 @@
+package com.example.anpr.web;
+
+import com.example.anpr.dto.HotlistStatus;
+import com.example.anpr.service.HotlistService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/hotlist")
+public class HotlistController {
+
+    private final HotlistService hotlistService;
+
+    public HotlistController(HotlistService hotlistService) {
+        this.hotlistService = hotlistService;
+    }
+
+    @GetMapping
+    public HotlistStatus status() {
+        return hotlistService.status();
+    }
+
+    @PostMapping("/reload")
+    public HotlistStatus reload() {
+        hotlistService.reload();
+        return hotlistService.status();
+    }
+}
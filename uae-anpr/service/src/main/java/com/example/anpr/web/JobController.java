@@ -0,0 +1,76 @@
+package com.example.anpr.web;
+
+import com.example.anpr.dto.JobStatus;
+import com.example.anpr.exception.PlateProcessingException;
+import com.example.anpr.service.JobService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/plates/jobs")
+public class JobController {
+
+    private static final Logger log = LoggerFactory.getLogger(JobController.class);
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<JobStatus> submit(@RequestParam("images") List<MultipartFile> images) {
+        return accepted(() -> jobService.submit(images));
+    }
+
+    /**
+     * Takes one zip archive as the raw request body and streams it to disk, for
+     * uploads larger than the multipart limits.
+     */
+    @PostMapping(consumes = "application/zip")
+    public ResponseEntity<JobStatus> submitArchive(@RequestParam(value = "name", defaultValue = "upload.zip") String name,
+                                                   HttpServletRequest request) {
+        return accepted(() -> jobService.submitArchive(name, request.getInputStream()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobStatus> get(@PathVariable("id") String id,
+                                         @RequestParam(value = "items", defaultValue = "true") boolean items) {
+        return ResponseEntity.of(jobService.status(id, items));
+    }
+
+    private ResponseEntity<JobStatus> accepted(Submission submission) {
+        try {
+            JobStatus status = submission.submit();
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/plates/jobs/" + status.getId()))
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            log.error("Failed to store job upload", e);
+            throw new PlateProcessingException("Failed to store job upload", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Submission {
+        JobStatus submit() throws IOException;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.anpr.web;
+
+import com.example.anpr.dto.LaneStatus;
+import com.example.anpr.service.LaneScheduler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/lanes")
+public class LaneController {
+
+    private final LaneScheduler laneScheduler;
+
+    public LaneController(LaneScheduler laneScheduler) {
+        this.laneScheduler = laneScheduler;
+    }
+
+    @GetMapping
+    public List<LaneStatus> status() {
+        return laneScheduler.status();
+    }
+}
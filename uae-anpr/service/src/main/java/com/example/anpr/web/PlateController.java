@@ -1,19 +1,32 @@
 package com.example.anpr.web;
 
+import com.example.anpr.config.AnprProperties;
 import com.example.anpr.dto.PlateResponse;
+import com.example.anpr.dto.ReadSearchResponse;
 import com.example.anpr.exception.PlateProcessingException;
+import com.example.anpr.service.LaneScheduler;
 import com.example.anpr.service.PlateService;
+import com.example.anpr.service.ReadLogService;
+import com.example.anpr.util.PlateKey;
+import com.example.anpr.util.StageTimings;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/v1/plates")
@@ -22,22 +35,60 @@ public class PlateController {
     private static final Logger log = LoggerFactory.getLogger(PlateController.class);
 
     private final PlateService plateService;
+    private final ReadLogService readLogService;
+    private final LaneScheduler laneScheduler;
+    private final boolean serverTiming;
 
-    public PlateController(PlateService plateService) {
+    public PlateController(PlateService plateService, ReadLogService readLogService, LaneScheduler laneScheduler,
+                           AnprProperties properties) {
         this.plateService = plateService;
+        this.readLogService = readLogService;
+        this.laneScheduler = laneScheduler;
+        this.serverTiming = properties.getDiagnostics().isServerTiming();
     }
 
     @PostMapping(value = "/recognize", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<PlateResponse> recognize(@RequestParam("image") MultipartFile image) {
+    public ResponseEntity<PlateResponse> recognize(@RequestParam("image") MultipartFile image,
+                                                   @RequestParam(value = "camera", required = false) String camera,
+                                                   @RequestHeader(value = "X-Lane", required = false) String lane,
+                                                   @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+                                                   HttpServletResponse servletResponse) {
         if (image.isEmpty()) {
             throw new PlateProcessingException("Uploaded image is empty", null);
         }
+        StageTimings timings = new StageTimings(laneScheduler.classify(lane, apiKey, LaneScheduler.LIVE));
         try {
-            PlateResponse response = plateService.recognize(image.getBytes());
+            PlateResponse response = plateService.recognize(image.getBytes(), camera, timings);
             return ResponseEntity.ok(response);
         } catch (IOException e) {
             log.error("Failed to read uploaded image", e);
             throw new PlateProcessingException("Failed to read uploaded image", e);
+        } finally {
+            // Set before the body is written so error responses carry it too.
+            if (serverTiming) {
+                servletResponse.setHeader("Server-Timing", timings.toServerTiming());
+            }
         }
     }
+
+    @GetMapping("/search")
+    public ReadSearchResponse search(@RequestParam("number") String number,
+                                     @RequestParam(value = "letter", required = false) String letter,
+                                     @RequestParam(value = "emirate", required = false) String emirate,
+                                     @RequestParam(value = "from", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                     @RequestParam(value = "to", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                     @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        if (!number.matches("\\d{1,8}")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "number must be 1-8 digits");
+        }
+        if (PlateKey.isUnknownEmirate(emirate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown emirate '" + emirate + "'");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        return new ReadSearchResponse(readLogService.search(number, letter, emirate, from, to, Math.max(1, Math.min(limit, 1000))));
+    }
 }
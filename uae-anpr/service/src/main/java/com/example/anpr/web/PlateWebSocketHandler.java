@@ -0,0 +1,185 @@
+package com.example.anpr.web;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.FrameResultMessage;
+import com.example.anpr.dto.PlateResponse;
+import com.example.anpr.exception.PlateNotFoundException;
+import com.example.anpr.exception.PlateProcessingException;
+import com.example.anpr.service.LaneScheduler;
+import com.example.anpr.service.PlateService;
+import com.example.anpr.util.InFlightSlot;
+import com.example.anpr.util.StageTimings;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Long-lived camera connection: every binary message is a complete JPEG frame
+ * and every reply is a small JSON text message tagged with the frame's
+ * sequence number. Each session has at most one frame in recognition and one
+ * waiting; a newer frame replaces the waiting one and the replaced frame is
+ * reported back as dropped, so a slow pipeline never builds up a backlog.
+ */
+@Component
+public class PlateWebSocketHandler extends BinaryWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(PlateWebSocketHandler.class);
+
+    private final PlateService plateService;
+    private final LaneScheduler laneScheduler;
+    private final ObjectMapper objectMapper;
+    private final AnprProperties.WebSocket properties;
+    private final ExecutorService workers;
+    private final Map<String, CameraSession> sessions = new ConcurrentHashMap<>();
+
+    public PlateWebSocketHandler(PlateService plateService, LaneScheduler laneScheduler, ObjectMapper objectMapper,
+                                 AnprProperties properties) {
+        this.plateService = plateService;
+        this.laneScheduler = laneScheduler;
+        this.objectMapper = objectMapper;
+        this.properties = properties.getWebsocket();
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, this.properties.getWorkers()), runnable -> {
+            Thread thread = new Thread(runnable, "ws-recognizer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(session,
+                properties.getSendTimeLimitMs(), properties.getSendBufferBytes(),
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP);
+        String lane = laneScheduler.classify(session.getHandshakeHeaders().getFirst("X-Lane"),
+                session.getHandshakeHeaders().getFirst("X-API-Key"), LaneScheduler.LIVE);
+        sessions.put(session.getId(), new CameraSession(concurrent, lane, cameraId(session)));
+        log.info("Camera connected: {} from {}", session.getId(), session.getRemoteAddress());
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        CameraSession camera = sessions.get(session.getId());
+        if (camera == null) {
+            return;
+        }
+        ByteBuffer payload = message.getPayload();
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        InFlightSlot.Offer<PendingFrame> offer = camera.slot.offer(new PendingFrame(camera.nextSeq.incrementAndGet(), bytes));
+        if (offer.dropped() != null) {
+            FrameResultMessage dropped = new FrameResultMessage(offer.dropped().seq());
+            dropped.setDropped(Boolean.TRUE);
+            send(camera, dropped);
+        }
+        if (offer.start() != null) {
+            submit(camera, offer.start());
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        CameraSession camera = sessions.remove(session.getId());
+        if (camera != null) {
+            camera.slot.close();
+        }
+        log.info("Camera disconnected: {} ({})", session.getId(), status);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void process(CameraSession camera, PendingFrame frame) {
+        FrameResultMessage reply = new FrameResultMessage(frame.seq());
+        try {
+            PlateResponse response = plateService.recognize(frame.bytes(), camera.cameraId, new StageTimings(camera.lane));
+            reply.setResults(response.getResults());
+        } catch (PlateNotFoundException e) {
+            reply.setResults(List.of());
+        } catch (PlateProcessingException e) {
+            reply.setError(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Unexpected error on camera session {}", camera.session.getId(), e);
+            reply.setError("Unexpected error");
+        }
+        send(camera, reply);
+        PendingFrame next = camera.slot.complete();
+        if (next != null) {
+            submit(camera, next);
+        }
+    }
+
+    /**
+     * Camera identity from the {@code X-Camera-Id} handshake header or, for
+     * clients that cannot set headers, the {@code camera} query parameter.
+     */
+    private static String cameraId(WebSocketSession session) {
+        String header = session.getHandshakeHeaders().getFirst("X-Camera-Id");
+        if (header != null || session.getUri() == null) {
+            return header;
+        }
+        return UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("camera");
+    }
+
+    private void submit(CameraSession camera, PendingFrame frame) {
+        try {
+            workers.execute(() -> process(camera, frame));
+        } catch (RejectedExecutionException e) {
+            camera.slot.close();
+        }
+    }
+
+    private void send(CameraSession camera, FrameResultMessage reply) {
+        if (!camera.session.isOpen()) {
+            return;
+        }
+        try {
+            camera.session.sendMessage(new TextMessage(objectMapper.writeValueAsString(reply)));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialise frame result", e);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Failed to send frame result to {}: {}", camera.session.getId(), e.getMessage());
+        }
+    }
+
+    private record PendingFrame(long seq, byte[] bytes) {
+    }
+
+    private static final class CameraSession {
+
+        private final WebSocketSession session;
+        private final String lane;
+        private final String cameraId;
+        private final AtomicLong nextSeq = new AtomicLong();
+        private final InFlightSlot<PendingFrame> slot = new InFlightSlot<>();
+
+        private CameraSession(WebSocketSession session, String lane, String cameraId) {
+            this.session = session;
+            this.lane = lane;
+            this.cameraId = cameraId;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.anpr.web;
+
+import com.example.anpr.dto.CameraRoiStatus;
+import com.example.anpr.service.CameraRoiService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/roi")
+public class RoiController {
+
+    private final CameraRoiService cameraRoiService;
+
+    public RoiController(CameraRoiService cameraRoiService) {
+        this.cameraRoiService = cameraRoiService;
+    }
+
+    @GetMapping
+    public List<CameraRoiStatus> status() {
+        return cameraRoiService.status();
+    }
+
+    @DeleteMapping("/{camera}")
+    public ResponseEntity<Void> reset(@PathVariable("camera") String camera) {
+        return cameraRoiService.reset(camera) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
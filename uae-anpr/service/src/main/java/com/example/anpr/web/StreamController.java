@@ -0,0 +1,32 @@
+package com.example.anpr.web;
+
+import com.example.anpr.dto.StreamStats;
+import com.example.anpr.service.StreamIngestionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/streams")
+public class StreamController {
+
+    private final StreamIngestionService streamIngestionService;
+
+    public StreamController(StreamIngestionService streamIngestionService) {
+        this.streamIngestionService = streamIngestionService;
+    }
+
+    @GetMapping
+    public List<StreamStats> list() {
+        return streamIngestionService.stats();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StreamStats> get(@PathVariable("id") String id) {
+        return ResponseEntity.of(streamIngestionService.stats(id));
+    }
+}
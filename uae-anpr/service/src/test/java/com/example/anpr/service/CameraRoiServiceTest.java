@@ -0,0 +1,115 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.CameraRoiStatus;
+import com.example.anpr.util.RoiHeatMap;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CameraRoiServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void cropsAfterEnoughSamplesChecksFullFramesAndPersists() throws IOException {
+        AnprProperties properties = properties();
+        CameraRoiService service = new CameraRoiService(properties, new ObjectMapper());
+        service.init();
+        List<YoloOnnxService.Detection> plate = List.of(new YoloOnnxService.Detection(900, 800, 200, 60, 0.9));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(service.plan("gate-1", 1920, 1080)).isNull();
+            service.observe("gate-1", 1920, 1080, null, plate, 40_000_000);
+        }
+        RoiHeatMap.Region crop = service.plan("gate-1", 1920, 1080);
+        assertThat(crop).isNotNull();
+        assertThat(crop.contains(new RoiHeatMap.Region(900, 800, 200, 60))).isTrue();
+        service.observe("gate-1", 1920, 1080, crop, plate, 20_000_000);
+
+        // Third frame is a full-frame check; a plate elsewhere widens the region.
+        assertThat(service.plan("gate-1", 1920, 1080)).isNotNull();
+        assertThat(service.plan("gate-1", 1920, 1080)).isNull();
+        service.observe("gate-1", 1920, 1080, null,
+                List.of(new YoloOnnxService.Detection(100, 900, 150, 50, 0.8)), 40_000_000);
+
+        CameraRoiStatus status = service.status().get(0);
+        assertThat(status.getMisses()).isEqualTo(1);
+        assertThat(status.getRoi().contains(new RoiHeatMap.Region(100, 900, 150, 50))).isTrue();
+        assertThat(status.getDetectorSpeedup()).isGreaterThan(1.0);
+        assertThat(status.getResolutionGain()).isGreaterThan(1.0);
+        service.shutdown();
+
+        CameraRoiService restarted = new CameraRoiService(properties, new ObjectMapper());
+        restarted.init();
+        assertThat(restarted.plan("gate-1", 1920, 1080)).isEqualTo(status.getRoi());
+        assertThat(restarted.plan("gate-1", 1280, 720)).isNull();
+        restarted.shutdown();
+    }
+
+    @Test
+    void limitsCamerasAndIgnoresIdsWithCollidingFiles() throws IOException {
+        AnprProperties properties = properties();
+        properties.getRoi().setMaxCameras(2);
+        CameraRoiService service = new CameraRoiService(properties, new ObjectMapper());
+        service.init();
+        List<YoloOnnxService.Detection> plate = List.of(new YoloOnnxService.Detection(900, 800, 200, 60, 0.9));
+
+        service.observe("a/b", 1920, 1080, null, plate, 1);
+        service.observe("a_b", 1920, 1080, null, plate, 1);
+        service.observe("gate-2", 1920, 1080, null, plate, 1);
+        service.observe("gate-3", 1920, 1080, null, plate, 1);
+        assertThat(service.status()).extracting(CameraRoiStatus::getCameraId).containsExactly("a/b", "gate-2");
+
+        assertThat(service.reset("gate-2")).isTrue();
+        service.observe("gate-3", 1920, 1080, null, plate, 1);
+        assertThat(service.status()).extracting(CameraRoiStatus::getCameraId).containsExactly("a/b", "gate-3");
+        service.shutdown();
+    }
+
+    @Test
+    void missedPlatesWidenTheRegionOnlyUntilTheHeatMapDecays() throws IOException {
+        AnprProperties properties = properties();
+        properties.getRoi().setFullFrameInterval(1);
+        properties.getRoi().setDecayLimit(16);
+        CameraRoiService service = new CameraRoiService(properties, new ObjectMapper());
+        service.init();
+        List<YoloOnnxService.Detection> plate = List.of(new YoloOnnxService.Detection(900, 800, 200, 60, 0.9));
+        List<YoloOnnxService.Detection> stray = List.of(new YoloOnnxService.Detection(100, 100, 150, 50, 0.8));
+        RoiHeatMap.Region strayBox = new RoiHeatMap.Region(100, 100, 150, 50);
+
+        for (int i = 0; i < 10; i++) {
+            service.observe("gate-1", 1920, 1080, null, plate, 1);
+        }
+        service.observe("gate-1", 1920, 1080, null, stray, 1);
+        assertThat(service.status().get(0).getRoi().contains(strayBox)).isTrue();
+
+        // The decay forgets the miss; the single stray hit is then trimmed away.
+        for (int i = 0; i < 10; i++) {
+            service.observe("gate-1", 1920, 1080, null, plate, 1);
+        }
+        CameraRoiStatus status = service.status().get(0);
+        assertThat(status.getMisses()).isEqualTo(1);
+        assertThat(status.getRoi().contains(strayBox)).isFalse();
+        assertThat(status.getRoi().contains(new RoiHeatMap.Region(900, 800, 200, 60))).isTrue();
+        service.shutdown();
+    }
+
+    private AnprProperties properties() {
+        AnprProperties properties = new AnprProperties();
+        properties.setImgsz(640);
+        AnprProperties.Roi roi = properties.getRoi();
+        roi.setEnabled(true);
+        roi.setDirectory(tempDir.toString());
+        roi.setMinSamples(10);
+        roi.setFullFrameInterval(3);
+        return properties;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.anpr.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode plus NMS cost of each output layout on synthetic tensors shaped like
+ * a 640x640 single-class plate model. Run with {@code mvn -Pbench test}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetectionDecoderBenchmark {
+
+    private static final int RAW_BOXES = 8400;
+    private static final int ANCHOR_BOXES = 25200;
+    private static final int END_TO_END_BOXES = 300;
+    private static final double CONF_THRESHOLD = 0.25;
+    private static final double IOU_THRESHOLD = 0.45;
+
+    /**
+     * Fraction of candidate boxes above the confidence threshold.
+     */
+    @Param({"0.001", "0.01"})
+    public double positiveRate;
+
+    private final DetectionDecoder.Letterbox letterbox = new DetectionDecoder.Letterbox(0.5, 0, 140, 1280, 720);
+    private final DetectionDecoder anchorFree = new AnchorFreeDetectionDecoder(5, true);
+    private final DetectionDecoder anchor = new AnchorDetectionDecoder(6, false);
+    private final DetectionDecoder endToEnd = new EndToEndDetectionDecoder(6);
+    private FloatBuffer anchorFreeOutput;
+    private FloatBuffer anchorOutput;
+    private FloatBuffer endToEndOutput;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        anchorFreeOutput = direct(RAW_BOXES * 5);
+        for (int i = 0; i < RAW_BOXES; i++) {
+            float[] box = box(random);
+            for (int f = 0; f < 4; f++) {
+                anchorFreeOutput.put(f * RAW_BOXES + i, box[f]);
+            }
+            anchorFreeOutput.put(4 * RAW_BOXES + i, score(random));
+        }
+        anchorOutput = direct(ANCHOR_BOXES * 6);
+        for (int i = 0; i < ANCHOR_BOXES; i++) {
+            float[] box = box(random);
+            anchorOutput.put(i * 6, box, 0, 4);
+            anchorOutput.put(i * 6 + 4, score(random));
+            anchorOutput.put(i * 6 + 5, 0.95f);
+        }
+        endToEndOutput = direct(END_TO_END_BOXES * 6);
+        // Sorted by score like in-graph top-k; the tail is padding.
+        int kept = Math.max(1, (int) (RAW_BOXES * positiveRate));
+        for (int i = 0; i < END_TO_END_BOXES; i++) {
+            float[] box = box(random);
+            endToEndOutput.put(i * 6, box[0] - box[2] / 2);
+            endToEndOutput.put(i * 6 + 1, box[1] - box[3] / 2);
+            endToEndOutput.put(i * 6 + 2, box[0] + box[2] / 2);
+            endToEndOutput.put(i * 6 + 3, box[1] + box[3] / 2);
+            endToEndOutput.put(i * 6 + 4, i < kept ? 0.9f - i * 0.001f : 0.0f);
+        }
+    }
+
+    @Benchmark
+    public List<YoloOnnxService.Detection> anchorFree() {
+        return YoloOnnxService.nonMaxSuppression(anchorFree.decode(anchorFreeOutput, letterbox, CONF_THRESHOLD), IOU_THRESHOLD);
+    }
+
+    @Benchmark
+    public List<YoloOnnxService.Detection> anchor() {
+        return YoloOnnxService.nonMaxSuppression(anchor.decode(anchorOutput, letterbox, CONF_THRESHOLD), IOU_THRESHOLD);
+    }
+
+    @Benchmark
+    public List<YoloOnnxService.Detection> endToEnd() {
+        return endToEnd.decode(endToEndOutput, letterbox, CONF_THRESHOLD);
+    }
+
+    private float score(Random random) {
+        return random.nextDouble() < positiveRate ? 0.3f + random.nextFloat() * 0.7f : random.nextFloat() * 0.2f;
+    }
+
+    private static float[] box(Random random) {
+        return new float[]{random.nextFloat() * 640, 140 + random.nextFloat() * 360,
+                20 + random.nextFloat() * 100, 10 + random.nextFloat() * 40};
+    }
+
+    // ONNX Runtime hands out direct, native-order buffers.
+    private static FloatBuffer direct(int floats) {
+        return ByteBuffer.allocateDirect(floats * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+}
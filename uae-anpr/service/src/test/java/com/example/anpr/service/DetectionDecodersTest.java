@@ -0,0 +1,85 @@
+package com.example.anpr.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class DetectionDecodersTest {
+
+    // 640x480 frame letterboxed into 640x640: scale 1, 80 px padding on top.
+    private static final DetectionDecoder.Letterbox LETTERBOX = new DetectionDecoder.Letterbox(1.0, 0, 80, 640, 480);
+
+    @Test
+    void selectsDecoderFromOutputShapeAndMetadata() {
+        Map<String, String> onePlate = Map.of("names", "{0: 'plate'}");
+
+        assertThat(DetectionDecoders.select(new long[]{1, 5, 8400}, onePlate, "auto"))
+                .isInstanceOf(AnchorFreeDetectionDecoder.class);
+        assertThat(DetectionDecoders.select(new long[]{1, 25200, 6}, onePlate, "auto"))
+                .isInstanceOf(AnchorDetectionDecoder.class);
+        assertThat(DetectionDecoders.select(new long[]{1, 300, 6}, onePlate, "auto"))
+                .isInstanceOf(EndToEndDetectionDecoder.class);
+        assertThat(DetectionDecoders.select(new long[]{-1, 84, 8400}, Map.of(), "auto"))
+                .isInstanceOf(AnchorFreeDetectionDecoder.class);
+        assertThat(DetectionDecoders.select(new long[]{1, -1, 6}, Map.of("end2end", "True"), "auto"))
+                .isInstanceOf(EndToEndDetectionDecoder.class);
+        assertThat(DetectionDecoders.select(new long[]{1, 5, 8400}, onePlate, "anchor"))
+                .isInstanceOf(AnchorDetectionDecoder.class);
+        assertThatThrownBy(() -> DetectionDecoders.select(new long[]{1, 5, 8400}, onePlate, "yolo"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void anchorFreeDecoderReadsChannelsFirstRows() {
+        // Three boxes, features [cx, cy, w, h, score] stored as rows.
+        FloatBuffer output = FloatBuffer.wrap(new float[]{
+                100, 320, 635,
+                300, 320, 100,
+                40, 100, 20,
+                20, 50, 20,
+                0.9f, 0.1f, 0.6f});
+
+        List<YoloOnnxService.Detection> detections =
+                new AnchorFreeDetectionDecoder(5, true).decode(output, LETTERBOX, 0.25);
+
+        assertThat(detections).hasSize(2);
+        assertThat(detections.get(0)).isEqualTo(new YoloOnnxService.Detection(80, 210, 40, 20, 0.9f));
+        // Clipped at the right edge of the original frame.
+        assertThat(detections.get(1)).isEqualTo(new YoloOnnxService.Detection(625, 10, 15, 20, 0.6f));
+    }
+
+    @Test
+    void anchorDecoderMultipliesObjectnessAndClassScore() {
+        FloatBuffer output = FloatBuffer.wrap(new float[]{
+                100, 300, 40, 20, 0.9f, 0.5f,
+                200, 300, 40, 20, 0.2f, 1.0f,
+                300, 300, 40, 20, 0.5f, 0.4f});
+
+        List<YoloOnnxService.Detection> detections =
+                new AnchorDetectionDecoder(6, false).decode(output, LETTERBOX, 0.25);
+
+        assertThat(detections).extracting(YoloOnnxService.Detection::x).containsExactly(80.0);
+        assertThat(detections.get(0).confidence()).isCloseTo(0.45, offset(1e-6));
+    }
+
+    @Test
+    void endToEndDecoderUsesCornerBoxesWithoutNms() {
+        FloatBuffer output = FloatBuffer.wrap(new float[]{
+                10, 90, 110, 140, 0.8f, 0,
+                12, 92, 108, 138, 0.7f, 0,
+                0, 0, 0, 0, 0.0f, 0});
+        EndToEndDetectionDecoder decoder = new EndToEndDetectionDecoder(6);
+
+        List<YoloOnnxService.Detection> detections = decoder.decode(output, LETTERBOX, 0.25);
+
+        assertThat(decoder.requiresNms()).isFalse();
+        assertThat(detections).hasSize(2);
+        assertThat(detections.get(0)).isEqualTo(new YoloOnnxService.Detection(10, 10, 100, 50, 0.8f));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.anpr.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvidenceSegmentTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void storesCropsSharingOneFrameAndReadsThemBack() throws IOException {
+        EvidenceSegment segment = EvidenceSegment.open(EvidenceSegment.dataPath(tempDir, 0), true);
+        byte[] frame = {1, 2, 3, 4};
+        long frameOffset = segment.writeBlob(frame);
+        for (long id = 10; id < 13; id++) {
+            byte[] crop = {(byte) id, (byte) id};
+            segment.writeEntry(id, 1_000, segment.writeBlob(crop), crop.length, frameOffset, frame.length);
+        }
+        segment.close();
+
+        EvidenceSegment reopened = EvidenceSegment.open(EvidenceSegment.dataPath(tempDir, 0), false);
+        assertThat(reopened.firstEvidenceId()).isEqualTo(10);
+        assertThat(reopened.lastEvidenceId()).isEqualTo(12);
+        assertThat(reopened.read(11, true)).containsExactly(11, 11);
+        assertThat(reopened.read(12, false)).containsExactly(1, 2, 3, 4);
+        assertThat(reopened.read(13, true)).isNull();
+    }
+}
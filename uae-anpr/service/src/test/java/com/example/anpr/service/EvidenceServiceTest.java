@@ -0,0 +1,145 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.PlateResult;
+import com.example.anpr.util.ImageUtils;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvidenceServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int FRAMES = 40;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void concurrentRequestsKeepIndexSortedAcrossRestart() throws Exception {
+        EvidenceService service = open();
+        Map<Long, byte[]> expected = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int f = 0; f < FRAMES; f++) {
+                    submitFrame(service, thread * 1000 + f, expected);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        service.shutdown();
+
+        assertThat(expected).hasSize(THREADS * FRAMES * 2);
+        assertThat(indexIds()).isSorted().doesNotHaveDuplicates().hasSize(expected.size());
+
+        EvidenceService reopened = open();
+        for (Map.Entry<Long, byte[]> entry : expected.entrySet()) {
+            assertThat(reopened.read(entry.getKey(), true)).hasValue(entry.getValue());
+        }
+        long max = expected.keySet().stream().mapToLong(Long::longValue).max().orElseThrow();
+        Map<Long, byte[]> next = new ConcurrentHashMap<>();
+        submitFrame(reopened, 99_999, next);
+        assertThat(next.keySet()).allMatch(id -> id > max);
+        reopened.shutdown();
+    }
+
+    @Test
+    void idsHandedOutBeforeACrashAreNotReused() throws Exception {
+        EvidenceService service = open();
+        Map<Long, byte[]> issued = new ConcurrentHashMap<>();
+        for (int f = 0; f < 5; f++) {
+            submitFrame(service, f, issued);
+        }
+        service.shutdown();
+        // A crash before the writer got to them: the ids are known to clients but not on disk.
+        try (var files = Files.list(tempDir)) {
+            for (Path segment : files.filter(path -> path.toString().matches(".*\\.(dat|idx)$")).toList()) {
+                Files.delete(segment);
+            }
+        }
+
+        EvidenceService reopened = open();
+        Map<Long, byte[]> next = new ConcurrentHashMap<>();
+        submitFrame(reopened, 42, next);
+        long max = issued.keySet().stream().mapToLong(Long::longValue).max().orElseThrow();
+        assertThat(next.keySet()).allMatch(id -> id > max);
+        assertThat(reopened.read(issued.keySet().iterator().next(), true)).isEmpty();
+        reopened.shutdown();
+    }
+
+    private EvidenceService open() throws Exception {
+        AnprProperties properties = new AnprProperties();
+        properties.getEvidence().setEnabled(true);
+        properties.getEvidence().setDirectory(tempDir.toString());
+        properties.getEvidence().setQueueCapacity(THREADS * FRAMES);
+        properties.getEvidence().setFsyncIntervalMs(10);
+        EvidenceService service = new EvidenceService(properties);
+        service.init();
+        return service;
+    }
+
+    /**
+     * Archives one frame with two crops whose colour encodes {@code seed} and
+     * remembers the JPEG each evidence id should return.
+     */
+    private static void submitFrame(EvidenceService service, int seed, Map<Long, byte[]> expected) {
+        try (Mat frame = new Mat(48, 64, opencv_core.CV_8UC3, new Scalar(seed % 256, 0, 0, 0))) {
+            EvidenceService.Batch batch = service.begin(frame);
+            List<PlateResult> results = new ArrayList<>();
+            List<byte[]> jpegs = new ArrayList<>();
+            for (int plate = 0; plate < 2; plate++) {
+                try (Mat crop = new Mat(8, 16, opencv_core.CV_8UC3,
+                        new Scalar(seed % 251, seed / 251 % 251, plate * 100, 0))) {
+                    PlateResult result = new PlateResult();
+                    batch.add(crop, result);
+                    results.add(result);
+                    jpegs.add(ImageUtils.encodeJpeg(crop, 90));
+                }
+            }
+            batch.submit();
+            for (int plate = 0; plate < results.size(); plate++) {
+                assertThat(results.get(plate).getEvidenceId()).isNotNull();
+                expected.put(results.get(plate).getEvidenceId(), jpegs.get(plate));
+            }
+        }
+    }
+
+    private List<Long> indexIds() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        try (var files = Files.list(tempDir)) {
+            for (Path index : files.filter(path -> path.toString().endsWith(".idx")).sorted().toList()) {
+                ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(index));
+                for (int offset = 0; offset + EvidenceSegment.ENTRY_BYTES <= bytes.limit(); offset += EvidenceSegment.ENTRY_BYTES) {
+                    ids.add(bytes.getLong(offset));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.PlateResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotlistServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void blankEmirateRowsMatchPlatesOfAnyEmirate() throws IOException {
+        HotlistService service = load("""
+                emirate,letter,number,list
+                ,F,12345,stolen
+                Dubai,A,777,fines
+                """);
+
+        assertThat(service.status().getEntries()).isEqualTo(2);
+        assertThat(match(service, "Sharjah", "F", "12345")).containsExactly("stolen");
+        assertThat(match(service, null, "F", "12345")).containsExactly("stolen");
+        assertThat(match(service, "Ajman", "A", "777")).isNull();
+    }
+
+    @Test
+    void acceptsAbbreviatedAndArabicEmiratesAndSkipsUnknownOnes() throws IOException {
+        HotlistService service = load("""
+                RAK,B,4455,stolen
+                دبي,C,9001,fines
+                Atlantis,D,1111,stolen
+                """);
+
+        assertThat(service.status().getEntries()).isEqualTo(2);
+        assertThat(match(service, "Ras Al Khaimah", "B", "4455")).containsExactly("stolen");
+        assertThat(match(service, "Dubai", "C", "9001")).containsExactly("fines");
+        assertThat(match(service, null, "D", "1111")).isNull();
+    }
+
+    private HotlistService load(String csv) throws IOException {
+        Path file = tempDir.resolve("hotlist.csv");
+        Files.writeString(file, csv);
+        AnprProperties properties = new AnprProperties();
+        properties.getHotlist().setEnabled(true);
+        properties.getHotlist().setPath(file.toString());
+        properties.getHotlist().setReloadIntervalSec(0);
+        HotlistService service = new HotlistService(properties);
+        service.init();
+        return service;
+    }
+
+    private static List<String> match(HotlistService service, String emirate, String letter, String number) {
+        PlateResult result = new PlateResult();
+        result.setEmirate(emirate);
+        result.setLetter(letter);
+        result.setNumber(number);
+        service.match(result, null);
+        return result.getHotlist() != null ? result.getHotlist().getLists() : null;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.JobStatus;
+import com.example.anpr.dto.PlateResponse;
+import com.example.anpr.exception.PlateProcessingException;
+import com.example.anpr.exception.UploadTooLargeException;
+import com.example.anpr.util.StageTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JobService jobService;
+
+    @AfterEach
+    void tearDown() {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+    }
+
+    @Test
+    void processesImagesFromFilesAndArchives() throws Exception {
+        PlateService plateService = mock(PlateService.class);
+        when(plateService.recognize(any(byte[].class), argThat(timings -> LaneScheduler.BULK.equals(timings.getLane()))))
+                .thenReturn(new PlateResponse(List.of()));
+        jobService = newService(plateService);
+
+        JobStatus submitted = jobService.submit(List.of(
+                new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[]{1}),
+                new MockMultipartFile("images", "batch.zip", "application/zip", zip("b.jpg", "notes.txt", "c.png"))));
+        assertThat(submitted.getTotal()).isEqualTo(3);
+
+        JobStatus done = awaitCompletion(submitted.getId());
+        assertThat(done.getCompleted()).isEqualTo(3);
+        assertThat(done.getItems()).extracting("name").containsExactly("a.jpg", "batch.zip!b.jpg", "batch.zip!c.png");
+    }
+
+    @Test
+    void retriesFailuresAndResumesAfterRestart() throws Exception {
+        PlateService failing = mock(PlateService.class);
+        when(failing.recognize(any(byte[].class), any(StageTimings.class))).thenThrow(new PlateProcessingException("boom", null));
+        jobService = newService(failing);
+        String id = jobService.submit(List.of(new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[]{1}))).getId();
+
+        JobStatus failed = awaitCompletion(id);
+        assertThat(failed.getFailed()).isEqualTo(1);
+        assertThat(failed.getItems().get(0).getAttempts()).isEqualTo(2);
+        jobService.shutdown();
+
+        jobService = newService(mock(PlateService.class));
+        assertThat(jobService.status(id, true)).get().extracting(JobStatus::getState).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void rejectsUploadsWithoutImages() throws IOException {
+        jobService = newService(mock(PlateService.class));
+        assertThatThrownBy(() -> jobService.submit(List.of(
+                new MockMultipartFile("images", "empty.zip", "application/zip", zip("readme.txt")))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void streamsArchiveBodiesUpToTheUploadLimit() throws Exception {
+        PlateService plateService = mock(PlateService.class);
+        when(plateService.recognize(any(byte[].class), any(StageTimings.class))).thenReturn(new PlateResponse(List.of()));
+        jobService = newService(plateService);
+
+        String id = jobService.submitArchive("cam.zip", new ByteArrayInputStream(zip("a.jpg", "b.jpg"))).getId();
+        assertThat(awaitCompletion(id).getItems()).extracting("name").containsExactly("cam.zip!a.jpg", "cam.zip!b.jpg");
+
+        byte[] noise = new byte[1024 * 1024 + 1];
+        new Random(7).nextBytes(noise);
+        ByteArrayOutputStream tooLarge = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(tooLarge)) {
+            zip.putNextEntry(new ZipEntry("big.jpg"));
+            zip.write(noise);
+        }
+        assertThatThrownBy(() -> jobService.submitArchive("big.zip", new ByteArrayInputStream(tooLarge.toByteArray())))
+                .isInstanceOf(UploadTooLargeException.class);
+        try (Stream<Path> entries = Files.list(tempDir)) {
+            assertThat(entries).extracting(path -> path.getFileName().toString()).containsExactly(id);
+        }
+    }
+
+    @Test
+    void rejectsArchivesThatExpandPastTheLimits() throws Exception {
+        jobService = newService(mock(PlateService.class));
+        ByteArrayOutputStream bomb = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bomb)) {
+            zip.putNextEntry(new ZipEntry("huge.jpg"));
+            zip.write(new byte[2 * 1024 * 1024]);
+        }
+        assertThat(bomb.size()).isLessThan(64 * 1024);
+        String[] many = new String[60];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = "notes-" + i + ".txt";
+        }
+
+        assertThatThrownBy(() -> jobService.submitArchive("bomb.zip", new ByteArrayInputStream(bomb.toByteArray())))
+                .isInstanceOf(UploadTooLargeException.class).hasMessageContaining("1 MB");
+        assertThatThrownBy(() -> jobService.submit(List.of(
+                new MockMultipartFile("images", "bomb.zip", "application/zip", bomb.toByteArray()))))
+                .isInstanceOf(UploadTooLargeException.class);
+        assertThatThrownBy(() -> jobService.submitArchive("many.zip", new ByteArrayInputStream(zip(many))))
+                .isInstanceOf(UploadTooLargeException.class).hasMessageContaining("50");
+        try (Stream<Path> entries = Files.list(tempDir)) {
+            assertThat(entries).isEmpty();
+        }
+    }
+
+    @Test
+    void countsAttemptBeforeRunningSoCrashingImagesFail() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        PlateService hanging = mock(PlateService.class);
+        when(hanging.recognize(any(byte[].class), any(StageTimings.class))).thenAnswer(invocation -> {
+            worker.set(Thread.currentThread());
+            entered.countDown();
+            release.await();
+            return new PlateResponse(List.of());
+        });
+        JobService crashed = newService(hanging, 1);
+        try {
+            String id = crashed.submit(List.of(new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[]{1}))).getId();
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Simulate a crash during the attempt: a new instance recovers from disk.
+            jobService = newService(mock(PlateService.class), 1);
+            JobStatus recovered = jobService.status(id, true).orElseThrow();
+            assertThat(recovered.getState()).isEqualTo("COMPLETED");
+            assertThat(recovered.getItems().get(0).getStatus()).isEqualTo("FAILED");
+            assertThat(recovered.getItems().get(0).getAttempts()).isEqualTo(1);
+        } finally {
+            // Let the stuck attempt finish before the temporary directory is removed.
+            release.countDown();
+            crashed.shutdown();
+            if (worker.get() != null) {
+                worker.get().join(5_000);
+            }
+        }
+    }
+
+    @Test
+    void removesFinishedJobsPastRetention() throws Exception {
+        PlateService plateService = mock(PlateService.class);
+        when(plateService.recognize(any(byte[].class), any(StageTimings.class))).thenReturn(new PlateResponse(List.of()));
+        jobService = newService(plateService);
+        String id = jobService.submit(List.of(new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[]{1}))).getId();
+        awaitCompletion(id);
+
+        jobService.removeExpired();
+
+        assertThat(jobService.status(id, false)).isEmpty();
+        assertThat(tempDir.resolve(id)).doesNotExist();
+    }
+
+    private JobService newService(PlateService plateService) throws IOException {
+        return newService(plateService, 2);
+    }
+
+    private JobService newService(PlateService plateService, int maxAttempts) throws IOException {
+        AnprProperties properties = new AnprProperties();
+        properties.getJobs().setDirectory(tempDir.toString());
+        properties.getJobs().setWorkers(2);
+        properties.getJobs().setMaxAttempts(maxAttempts);
+        properties.getJobs().setMaxUploadMb(1);
+        properties.getJobs().setMaxExtractedMb(1);
+        properties.getJobs().setMaxFiles(50);
+        properties.getJobs().setRetentionHours(0);
+        JobService service = new JobService(properties, plateService, new ObjectMapper());
+        service.init();
+        return service;
+    }
+
+    private JobStatus awaitCompletion(String id) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            JobStatus status = jobService.status(id, true).orElseThrow();
+            if ("COMPLETED".equals(status.getState())) {
+                return status;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Job " + id + " did not complete");
+    }
+
+    private static byte[] zip(String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String name : names) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(new byte[]{1, 2, 3});
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LaneSchedulerTest {
+
+    @Test
+    void laneHeaderCanOnlyLowerTheMappedLane() {
+        AnprProperties properties = new AnprProperties();
+        properties.getLanes().setApiKeys(Map.of("backoffice", LaneScheduler.BULK, "gate", LaneScheduler.LIVE));
+        LaneScheduler scheduler = new LaneScheduler(properties, new SimpleMeterRegistry());
+
+        assertThat(scheduler.classify("live", "backoffice", LaneScheduler.LIVE)).isEqualTo(LaneScheduler.BULK);
+        assertThat(scheduler.classify("live", null, LaneScheduler.BULK)).isEqualTo(LaneScheduler.BULK);
+        assertThat(scheduler.classify("bulk", "gate", LaneScheduler.LIVE)).isEqualTo(LaneScheduler.BULK);
+        assertThat(scheduler.classify(null, "gate", LaneScheduler.BULK)).isEqualTo(LaneScheduler.LIVE);
+        assertThat(scheduler.classify("express", null, LaneScheduler.LIVE)).isEqualTo(LaneScheduler.LIVE);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.anpr.service;
+
+import com.example.anpr.dto.ReadRecord;
+import com.example.anpr.util.PlateKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadLogSegmentTest {
+
+    private static final long DUBAI_12345 = PlateKey.pack(PlateKey.emirateCode("Dubai"), "12345");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findsReadsInActiveAndSealedSegment() throws IOException {
+        ReadLogSegment segment = ReadLogSegment.create(tempDir, 0, 4096);
+        segment.append(1_000, DUBAI_12345, 0.9f, "12345", "F", "Dubai");
+        segment.append(2_000, PlateKey.pack(1, "777"), 0.8f, "777", null, "Abu Dhabi");
+        segment.append(3_000, DUBAI_12345, 0.7f, "12345", "F", "Dubai");
+
+        assertThat(search(segment, 0, Long.MAX_VALUE)).extracting(ReadRecord::getConfidence)
+                .containsExactly((double) 0.9f, (double) 0.7f);
+
+        segment.seal();
+        List<ReadRecord> sealed = search(segment, 2_500, Long.MAX_VALUE);
+        assertThat(sealed).hasSize(1);
+        assertThat(sealed.get(0).getLetter()).isEqualTo("F");
+        assertThat(sealed.get(0).getEmirate()).isEqualTo("Dubai");
+        assertThat(sealed.get(0).getTimestamp()).isEqualTo("1970-01-01T00:00:03Z");
+    }
+
+    @Test
+    void rejectsAppendsWhenFullAndRecoversAfterReopen() throws IOException {
+        ReadLogSegment segment = ReadLogSegment.create(tempDir, 7, 128);
+        int appended = 0;
+        while (segment.append(appended, DUBAI_12345, 0.5f, "12345", "F", "Dubai")) {
+            appended++;
+        }
+        assertThat(appended).isGreaterThan(0);
+        segment.force();
+
+        Path path = ReadLogSegment.logPath(tempDir, 7);
+        ReadLogSegment reopened = ReadLogSegment.open(path, ReadLogSegment.idOf(path), true, 128);
+        assertThat(search(reopened, 0, Long.MAX_VALUE)).hasSize(appended);
+    }
+
+    @Test
+    void searchesLargeActiveSegmentThroughSortedKeys() throws IOException {
+        ReadLogSegment segment = ReadLogSegment.create(tempDir, 3, 1 << 20);
+        long other = PlateKey.pack(2, "777");
+        for (int i = 0; i < 5000; i++) {
+            segment.append(i, i % 10 == 0 ? DUBAI_12345 : other, 0.5f, i % 10 == 0 ? "12345" : "777", null, "Dubai");
+        }
+        assertThat(search(segment, 0, Long.MAX_VALUE)).hasSize(500);
+
+        for (int i = 5000; i < 5010; i++) {
+            segment.append(i, DUBAI_12345, 0.5f, "12345", null, "Dubai");
+        }
+        List<ReadRecord> reads = search(segment, 4000, Long.MAX_VALUE);
+        assertThat(reads).hasSize(110);
+        assertThat(reads).extracting(read -> Instant.parse(read.getTimestamp())).isSorted();
+    }
+
+    @Test
+    void reopensSealedSegmentFromItsIndex() throws IOException {
+        ReadLogSegment segment = ReadLogSegment.create(tempDir, 4, 4096);
+        segment.append(1_000, DUBAI_12345, 0.9f, "12345", "F", "Dubai");
+        segment.append(3_000, DUBAI_12345, 0.7f, "12345", "F", "Dubai");
+        segment.seal();
+
+        Path path = ReadLogSegment.logPath(tempDir, 4);
+        ReadLogSegment reopened = ReadLogSegment.open(path, 4, false, 4096);
+
+        assertThat(reopened.maxTimestamp()).isEqualTo(3_000);
+        assertThat(search(reopened, 2_000, Long.MAX_VALUE)).extracting(ReadRecord::getTimestamp)
+                .containsExactly("1970-01-01T00:00:03Z");
+    }
+
+    private static List<ReadRecord> search(ReadLogSegment segment, long from, long to) {
+        List<ReadLogSegment.Hit> out = new ArrayList<>();
+        segment.search(List.of(DUBAI_12345), from, to, out);
+        return out.stream().map(ReadLogSegment.Hit::record).toList();
+    }
+}
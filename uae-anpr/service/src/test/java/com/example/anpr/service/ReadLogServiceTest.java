@@ -0,0 +1,46 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.ReadRecord;
+import com.example.anpr.util.PlateKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadLogServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void dropsExpiredSegmentsAtStartupAndReturnsNewestFirst() throws Exception {
+        long dubai = PlateKey.pack(PlateKey.emirateCode("Dubai"), "12345");
+        ReadLogSegment old = ReadLogSegment.create(tempDir, 0, 4096);
+        old.append(1_000, dubai, 0.9f, "12345", "F", "Dubai");
+        old.seal();
+        long now = System.currentTimeMillis();
+        ReadLogSegment current = ReadLogSegment.create(tempDir, 1, 4096);
+        current.append(now - 2_000, dubai, 0.8f, "12345", "F", "Dubai");
+        current.append(now - 1_000, dubai, 0.7f, "12345", "F", "Dubai");
+        current.force();
+
+        AnprProperties properties = new AnprProperties();
+        properties.getReadLog().setEnabled(true);
+        properties.getReadLog().setDirectory(tempDir.toString());
+        properties.getReadLog().setSegmentSizeMb(1);
+        properties.getReadLog().setRetentionDays(1);
+        ReadLogService service = new ReadLogService(properties);
+        service.init();
+        try {
+            assertThat(ReadLogSegment.list(tempDir)).containsExactly(ReadLogSegment.logPath(tempDir, 1));
+            List<ReadRecord> reads = service.search("12345", null, "Dubai", null, null, 10);
+            assertThat(reads).extracting(ReadRecord::getConfidence).containsExactly((double) 0.7f, (double) 0.8f);
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.anpr.service;
+
+import com.example.anpr.config.AnprProperties;
+import com.example.anpr.dto.SlowRequestSample;
+import com.example.anpr.util.StageTimings;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowRequestSamplerTest {
+
+    @Test
+    void keepsOnlyTheSlowestRequests() {
+        AnprProperties properties = new AnprProperties();
+        properties.getDiagnostics().setSlowSamples(2);
+        properties.getDiagnostics().setSlowThresholdMs(0);
+        SlowRequestSampler sampler = new SlowRequestSampler(properties);
+
+        StageTimings fast = finished(1);
+        StageTimings slow = finished(30);
+        StageTimings medium = finished(15);
+        sampler.offer(fast, new byte[]{(byte) 0xFF, (byte) 0xD8, 0, 0}, 1, null);
+        sampler.offer(slow, new byte[]{1, 2, 3, 4}, 0, "No licence plates detected");
+        sampler.offer(medium, new byte[4], 2, null);
+
+        assertThat(sampler.list()).extracting(SlowRequestSample::getRequestId)
+                .containsExactly(slow.getRequestId(), medium.getRequestId());
+        assertThat(sampler.qualifies(fast.totalNanos())).isFalse();
+        assertThat(sampler.find(slow.getRequestId())).hasValueSatisfying(sample -> {
+            assertThat(sample.info().getTotalMs()).isEqualTo(30.0);
+            assertThat(sample.info().getError()).isEqualTo("No licence plates detected");
+            assertThat(sample.image()).containsExactly(1, 2, 3, 4);
+        });
+    }
+
+    @Test
+    void ignoresRequestsBelowThreshold() {
+        AnprProperties properties = new AnprProperties();
+        properties.getDiagnostics().setSlowThresholdMs(10_000);
+        SlowRequestSampler sampler = new SlowRequestSampler(properties);
+
+        sampler.offer(new StageTimings(), new byte[4], 1, null);
+
+        assertThat(sampler.list()).isEmpty();
+    }
+
+    @Test
+    void detectsImageContentType() {
+        assertThat(SlowRequestSampler.contentType(new byte[]{(byte) 0xFF, (byte) 0xD8, 0, 0})).isEqualTo("image/jpeg");
+        assertThat(SlowRequestSampler.contentType(new byte[]{(byte) 0x89, 'P', 'N', 'G'})).isEqualTo("image/png");
+        assertThat(SlowRequestSampler.contentType(new byte[]{1})).isEqualTo("application/octet-stream");
+    }
+
+    /**
+     * A finished request that took exactly {@code millis} on a synthetic clock.
+     */
+    private static StageTimings finished(long millis) {
+        long[] now = {0};
+        StageTimings timings = new StageTimings(null, () -> now[0]);
+        now[0] = millis * 1_000_000L;
+        timings.finish(0, false);
+        return timings;
+    }
+}
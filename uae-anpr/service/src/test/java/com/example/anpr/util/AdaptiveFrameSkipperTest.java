@@ -0,0 +1,38 @@
+package com.example.anpr.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveFrameSkipperTest {
+
+    @Test
+    void decodesEveryFrameWhenPipelineKeepsUp() {
+        AdaptiveFrameSkipper skipper = new AdaptiveFrameSkipper(8, 25);
+        skipper.recordProcessingTime(20);
+        assertThat(skipper.getStride()).isEqualTo(1);
+        assertThat(skipper.shouldDecode()).isTrue();
+        assertThat(skipper.shouldDecode()).isTrue();
+    }
+
+    @Test
+    void skipsFramesWhenPipelineFallsBehind() {
+        AdaptiveFrameSkipper skipper = new AdaptiveFrameSkipper(8, 25);
+        skipper.recordProcessingTime(100);
+        assertThat(skipper.getStride()).isEqualTo(3);
+        int decoded = 0;
+        for (int i = 0; i < 9; i++) {
+            if (skipper.shouldDecode()) {
+                decoded++;
+            }
+        }
+        assertThat(decoded).isEqualTo(3);
+    }
+
+    @Test
+    void strideIsBoundedByMaxSkip() {
+        AdaptiveFrameSkipper skipper = new AdaptiveFrameSkipper(2, 30);
+        skipper.recordProcessingTime(5_000);
+        assertThat(skipper.getStride()).isEqualTo(3);
+    }
+}
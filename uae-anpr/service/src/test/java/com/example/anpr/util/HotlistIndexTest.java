@@ -0,0 +1,54 @@
+package com.example.anpr.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotlistIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findsListedPlatesAndTheirLists() throws IOException {
+        HotlistIndex.Builder builder = new HotlistIndex.Builder();
+        builder.add("Dubai", "F", "12345", "stolen");
+        builder.add("Dubai", "F", "12345", "fines");
+        builder.add("Sharjah", "", "777", "fines");
+        Path file = tempDir.resolve("hotlist.idx");
+        builder.write(file);
+
+        HotlistIndex index = HotlistIndex.open(file);
+        assertThat(index.size()).isEqualTo(2);
+        int mask = index.lookup(PlateKey.pack("Dubai", "F", "12345"));
+        assertThat(index.listNames(mask)).containsExactly("stolen", "fines");
+        assertThat(index.listNames(index.lookup(PlateKey.pack("Sharjah", null, "777")))).containsExactly("fines");
+        assertThat(index.lookup(PlateKey.pack("Ajman", "F", "12345"))).isZero();
+        assertThat(index.lookup(PlateKey.pack("Dubai", "F", "12346"))).isZero();
+    }
+
+    @Test
+    void fuzzyTableMatchesConfusableCharacters() throws IOException {
+        HotlistIndex.Builder builder = new HotlistIndex.Builder();
+        builder.add("Abu Dhabi", "B", "10203", "stolen");
+        Path file = tempDir.resolve("fuzzy.idx");
+        builder.write(file);
+
+        HotlistIndex index = HotlistIndex.open(file);
+        int emirate = PlateKey.emirateCode("Abu Dhabi");
+        assertThat(index.lookup(PlateKey.pack(emirate, "810203"))).isZero();
+        assertThat(index.lookupFuzzy(PlateKey.pack(emirate, PlateKey.fold("81O2O3")))).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsCodesThatCannotBePacked() {
+        assertThat(PlateKey.pack(1, "")).isEqualTo(PlateKey.INVALID);
+        assertThat(PlateKey.pack(1, "123456789")).isEqualTo(PlateKey.INVALID);
+        assertThat(PlateKey.pack(1, "12-34")).isEqualTo(PlateKey.INVALID);
+        assertThat(PlateKey.pack(1, "A1")).isNotEqualTo(PlateKey.pack(2, "A1"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.anpr.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightSlotTest {
+
+    @Test
+    void idleSlotStartsItemRightAway() {
+        InFlightSlot<String> slot = new InFlightSlot<>();
+        assertThat(slot.offer("a")).isEqualTo(new InFlightSlot.Offer<>("a", null));
+        assertThat(slot.isBusy()).isTrue();
+    }
+
+    @Test
+    void newerItemOverwritesWaitingOne() {
+        InFlightSlot<String> slot = new InFlightSlot<>();
+        slot.offer("a");
+        assertThat(slot.offer("b")).isEqualTo(new InFlightSlot.Offer<>(null, null));
+        assertThat(slot.offer("c")).isEqualTo(new InFlightSlot.Offer<>(null, "b"));
+        assertThat(slot.complete()).isEqualTo("c");
+        assertThat(slot.isBusy()).isTrue();
+        assertThat(slot.complete()).isNull();
+        assertThat(slot.isBusy()).isFalse();
+    }
+
+    @Test
+    void completeWithoutWaitingItemMakesSlotIdle() {
+        InFlightSlot<String> slot = new InFlightSlot<>();
+        slot.offer("a");
+        assertThat(slot.complete()).isNull();
+        assertThat(slot.offer("b").start()).isEqualTo("b");
+    }
+
+    @Test
+    void closeDiscardsWaitingItemAndRejectsOffers() {
+        InFlightSlot<String> slot = new InFlightSlot<>();
+        slot.offer("a");
+        slot.offer("b");
+        slot.close();
+        assertThat(slot.complete()).isNull();
+        assertThat(slot.offer("c")).isEqualTo(new InFlightSlot.Offer<>(null, null));
+    }
+}
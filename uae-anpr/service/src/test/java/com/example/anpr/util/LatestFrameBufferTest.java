@@ -0,0 +1,54 @@
+package com.example.anpr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatestFrameBufferTest {
+
+    @Test
+    void newerItemReplacesPendingOne() throws InterruptedException {
+        List<String> dropped = new ArrayList<>();
+        LatestFrameBuffer<String> buffer = new LatestFrameBuffer<>(dropped::add);
+        buffer.offer("a");
+        buffer.offer("b");
+        assertThat(buffer.poll(10, TimeUnit.MILLISECONDS)).isEqualTo("b");
+        assertThat(dropped).containsExactly("a");
+        assertThat(buffer.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void pollTimesOutWhenEmpty() throws InterruptedException {
+        LatestFrameBuffer<String> buffer = new LatestFrameBuffer<>(item -> { });
+        assertThat(buffer.poll(10, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void closeReleasesPendingAndRejectsNewItems() throws InterruptedException {
+        List<String> dropped = new ArrayList<>();
+        LatestFrameBuffer<String> buffer = new LatestFrameBuffer<>(dropped::add);
+        buffer.offer("a");
+        buffer.close();
+        buffer.offer("b");
+        assertThat(dropped).containsExactly("a", "b");
+        assertThat(buffer.poll(10, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(buffer.isClosed()).isTrue();
+    }
+
+    @Test
+    void finishKeepsPendingItemForConsumer() throws InterruptedException {
+        List<String> dropped = new ArrayList<>();
+        LatestFrameBuffer<String> buffer = new LatestFrameBuffer<>(dropped::add);
+        buffer.offer("last");
+        buffer.finish();
+        buffer.offer("late");
+        assertThat(buffer.poll(10, TimeUnit.MILLISECONDS)).isEqualTo("last");
+        assertThat(buffer.poll(10, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(buffer.isClosed()).isTrue();
+        assertThat(dropped).containsExactly("late");
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.anpr.util;
+
+import net.sourceforge.tess4j.Word;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlateStripTest {
+
+    // 64 px plates: tops at 32, 160 and 288; separators in between.
+    private final PlateStrip strip = new PlateStrip(64, 3);
+
+    @Test
+    void mapsLinesToPlatesAndJoinsTwoRowPlates() {
+        List<Word> lines = List.of(
+                line("F 97344\n", 40, 36, 200, 56),
+                line("12\n", 60, 162, 60, 28),
+                line("4455\n", 40, 192, 120, 28),
+                line("AD 501\n", 40, 290, 150, 60));
+
+        String[] texts = strip.assign(lines);
+
+        assertThat(strip.height()).isEqualTo(384);
+        assertThat(texts).containsExactly("F 97344", "12\n4455", "AD 501");
+    }
+
+    @Test
+    void leavesPlatesWithCrossingOrMissingLinesUnassigned() {
+        List<Word> lines = List.of(
+                line("F 97344 12", 40, 40, 200, 150),
+                line(" ", 0, 300, 10, 10));
+
+        String[] texts = strip.assign(lines);
+
+        assertThat(texts).containsExactly(null, null, null);
+    }
+
+    @Test
+    void flagsTextInsideSeparatorBand() {
+        List<Word> lines = List.of(
+                line("A 1", 40, 40, 100, 50),
+                line("~", 40, 100, 20, 20),
+                line("C 3", 40, 295, 100, 50));
+
+        String[] texts = strip.assign(lines);
+
+        assertThat(texts).containsExactly(null, null, "C 3");
+    }
+
+    @Test
+    void blamesOnlyTheAdjacentPlateForTextInTheOuterMargins() {
+        List<Word> top = List.of(
+                line("-", 40, 4, 20, 20),
+                line("B 2", 40, 165, 100, 50),
+                line("C 3", 40, 295, 100, 50));
+        List<Word> bottom = List.of(
+                line("A 1", 40, 40, 100, 50),
+                line("B 2", 40, 165, 100, 50),
+                line("-", 40, 360, 20, 20));
+
+        assertThat(strip.assign(top)).containsExactly(null, "B 2", "C 3");
+        assertThat(strip.assign(bottom)).containsExactly("A 1", "B 2", null);
+    }
+
+    private static Word line(String text, int x, int y, int width, int height) {
+        return new Word(text, 90f, new Rectangle(x, y, width, height));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.anpr.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoiHeatMapTest {
+
+    @Test
+    void regionCoversRepeatedPlatesAndTrimsOutliers() {
+        RoiHeatMap heatMap = new RoiHeatMap(32, 1920, 1080);
+        for (int i = 0; i < 500; i++) {
+            heatMap.add(new RoiHeatMap.Region(600 + i % 300, 700 + i % 100, 160, 40));
+        }
+        heatMap.add(new RoiHeatMap.Region(10, 10, 20, 20));
+
+        RoiHeatMap.Region region = heatMap.region(0.005, 0.0);
+
+        assertThat(region.contains(new RoiHeatMap.Region(600, 700, 460, 140))).isTrue();
+        assertThat(region.x()).isGreaterThan(500);
+        assertThat(region.area()).isLessThan(1920L * 1080 / 4);
+        assertThat(heatMap.samples()).isEqualTo(501);
+    }
+
+    @Test
+    void marginGrowsRegionWithinFrameAndStateRestores() {
+        RoiHeatMap heatMap = new RoiHeatMap(16, 640, 480);
+        heatMap.add(new RoiHeatMap.Region(0, 400, 80, 80));
+
+        RoiHeatMap.Region tight = heatMap.region(0.0, 0.0);
+        RoiHeatMap.Region padded = heatMap.region(0.0, 0.5);
+        RoiHeatMap restored = RoiHeatMap.restore(16, 640, 480, RoiHeatMap.DEFAULT_DECAY_LIMIT, heatMap.samples(), heatMap.cells());
+
+        assertThat(tight).isEqualTo(new RoiHeatMap.Region(0, 390, 80, 90));
+        assertThat(padded.x()).isZero();
+        assertThat(padded.bottom()).isEqualTo(480);
+        assertThat(padded.right()).isEqualTo(120);
+        assertThat(restored.region(0.0, 0.0)).isEqualTo(tight);
+        assertThat(new RoiHeatMap.Region(-10, -10, 20, 20).clip(640, 480)).isEqualTo(new RoiHeatMap.Region(0, 0, 10, 10));
+    }
+
+    @Test
+    void historyFadesOnceACellReachesTheDecayLimit() {
+        RoiHeatMap heatMap = new RoiHeatMap(16, 640, 480, 8);
+        for (int i = 0; i < 7; i++) {
+            assertThat(heatMap.add(new RoiHeatMap.Region(0, 0, 40, 30))).isFalse();
+        }
+        for (int i = 0; i < 3; i++) {
+            heatMap.add(new RoiHeatMap.Region(600, 450, 40, 30));
+        }
+        assertThat(heatMap.add(new RoiHeatMap.Region(0, 0, 40, 30))).isTrue();
+
+        int[] cells = heatMap.cells();
+        assertThat(cells[0]).isEqualTo(4);
+        assertThat(cells[cells.length - 1]).isEqualTo(1);
+        assertThat(RoiHeatMap.restore(16, 640, 480, 4, heatMap.samples(), cells).cells()[0]).isEqualTo(2);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.anpr.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollingJsonlWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writesOneDocumentPerLineAndRollsBySize() throws IOException {
+        try (RollingJsonlWriter writer = new RollingJsonlWriter(tempDir, "plates", 50, new ObjectMapper())) {
+            for (int i = 0; i < 4; i++) {
+                writer.write(Map.of("file", "img-" + i + ".jpg"));
+            }
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(tempDir)) {
+            files = stream.sorted().toList();
+        }
+        assertThat(files).hasSize(2);
+        assertThat(files.get(0).getFileName().toString()).startsWith("plates-").endsWith("-000.jsonl");
+        assertThat(Files.readAllLines(files.get(0))).containsExactly("{\"file\":\"img-0.jpg\"}", "{\"file\":\"img-1.jpg\"}");
+        assertThat(Files.readAllLines(files.get(1))).hasSize(2);
+    }
+
+    @Test
+    void appendsToExistingFileAfterRestart() throws IOException {
+        try (RollingJsonlWriter writer = new RollingJsonlWriter(tempDir, "plates", 1024, new ObjectMapper())) {
+            writer.write(Map.of("n", 1));
+        }
+        try (RollingJsonlWriter writer = new RollingJsonlWriter(tempDir, "plates", 1024, new ObjectMapper())) {
+            writer.write(Map.of("n", 2));
+        }
+        try (Stream<Path> stream = Files.list(tempDir)) {
+            List<Path> files = stream.toList();
+            assertThat(files).hasSize(1);
+            assertThat(Files.readAllLines(files.get(0))).containsExactly("{\"n\":1}", "{\"n\":2}");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.anpr.util;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StageTimingsTest {
+
+    @Test
+    void serverTimingListsStagesInOrderAndCountsRepeats() {
+        StageTimings timings = new StageTimings();
+        timings.begin(StageTimings.INFERENCE).close();
+        timings.begin(StageTimings.OCR).close();
+        timings.begin(StageTimings.OCR).close();
+        timings.finish(2, false);
+
+        String header = timings.toServerTiming();
+
+        assertThat(header).matches("inference;dur=\\d+\\.\\d, ocr;dur=\\d+\\.\\d;desc=\"2 calls\", total;dur=\\d+\\.\\d");
+        assertThat(timings.toMillis()).containsOnlyKeys("inference", "ocr", "total");
+    }
+
+    @Test
+    void stagesAreRecordedAsFlightRecorderEvents(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("stages.jfr");
+        StageTimings timings = new StageTimings();
+        try (Recording recording = new Recording()) {
+            recording.enable("com.example.anpr.Stage");
+            recording.enable("com.example.anpr.Recognition");
+            recording.start();
+            try (StageTimings.Span ignored = timings.begin(StageTimings.DECODE)) {
+                Thread.sleep(2);
+            }
+            timings.finish(0, true);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.example.anpr.Stage");
+            assertThat(event.getString("stage")).isEqualTo("decode");
+            assertThat(event.getLong("requestId")).isEqualTo(timings.getRequestId());
+            assertThat(event.getDuration().toNanos()).isPositive();
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.example.anpr.Recognition");
+            assertThat(event.getBoolean("failed")).isTrue();
+        });
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.anpr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeightedFairGateTest {
+
+    @Test
+    void servesBackloggedLanesInProportionToTheirWeights() throws Exception {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("live", 3);
+        weights.put("bulk", 1);
+        WeightedFairGate gate = new WeightedFairGate("detector", 1, weights);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        WeightedFairGate.Permit blocker = gate.acquire("bulk");
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(waiter(gate, "bulk", order));
+            threads.add(waiter(gate, "live", order));
+        }
+        awaitQueued(gate, 4, 4);
+        blocker.close();
+        for (Thread thread : threads) {
+            thread.join(5_000);
+        }
+
+        // While both lanes are queued, live gets three permits for every bulk one.
+        assertThat(order.subList(0, 4)).containsExactlyInAnyOrder("live", "live", "live", "bulk");
+        assertThat(order).hasSize(8);
+        assertThat(gate.snapshot().get("live").granted()).isEqualTo(4);
+    }
+
+    @Test
+    void uncontendedAcquireDoesNotWaitAndUnknownLaneIsRejected() throws Exception {
+        WeightedFairGate gate = new WeightedFairGate("ocr", 2, Map.of("live", 1));
+
+        try (WeightedFairGate.Permit first = gate.acquire("live");
+             WeightedFairGate.Permit second = gate.acquire("live")) {
+            assertThat(gate.snapshot().get("live").inFlight()).isEqualTo(2);
+        }
+
+        assertThat(gate.snapshot().get("live").inFlight()).isZero();
+        assertThatThrownBy(() -> gate.acquire("bulk")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void interruptedWaitersDoNotChargeTheirLane() throws Exception {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("live", 1);
+        weights.put("bulk", 2);
+        WeightedFairGate gate = new WeightedFairGate("detector", 1, weights);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        WeightedFairGate.Permit blocker = gate.acquire("live");
+        List<Thread> abandoned = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            abandoned.add(waiter(gate, "bulk", order));
+        }
+        awaitQueued(gate, 0, 3);
+        for (Thread thread : abandoned) {
+            thread.interrupt();
+            thread.join(5_000);
+        }
+        awaitQueued(gate, 0, 0);
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(waiter(gate, "bulk", order));
+        awaitQueued(gate, 0, 1);
+        threads.add(waiter(gate, "live", order));
+        threads.add(waiter(gate, "live", order));
+        awaitQueued(gate, 2, 1);
+        blocker.close();
+        for (Thread thread : threads) {
+            thread.join(5_000);
+        }
+
+        // Without the rollback the abandoned tags would put bulk behind both live requests.
+        assertThat(order).containsExactly("bulk", "live", "live");
+    }
+
+    @Test
+    void waiterBehindAnAbandonedOneKeepsItsPlaceAmongOtherLanes() throws Exception {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("live", 2);
+        weights.put("bulk", 1);
+        WeightedFairGate gate = new WeightedFairGate("detector", 1, weights);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        // Advance virtual time to 5 through live while bulk stays idle at 0.
+        for (int i = 0; i < 10; i++) {
+            gate.acquire("live").close();
+        }
+
+        WeightedFairGate.Permit blocker = gate.acquire("live");
+        Thread abandoned = waiter(gate, "bulk", order);
+        awaitQueued(gate, 0, 1);
+        List<Thread> threads = new ArrayList<>();
+        threads.add(waiter(gate, "bulk", order));
+        awaitQueued(gate, 0, 2);
+        for (int i = 0; i < 3; i++) {
+            threads.add(waiter(gate, "live", order));
+            awaitQueued(gate, i + 1, 2);
+        }
+        abandoned.interrupt();
+        abandoned.join(5_000);
+        awaitQueued(gate, 3, 1);
+        blocker.close();
+        for (Thread thread : threads) {
+            thread.join(5_000);
+        }
+
+        // Tags: live 6.0, 6.5, 7.0; the remaining bulk waiter is re-tagged 6.5, not 1.0.
+        assertThat(order).containsExactly("live", "live", "bulk", "live");
+    }
+
+    private static Thread waiter(WeightedFairGate gate, String lane, List<String> order) {
+        CountDownLatch started = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            started.countDown();
+            try (WeightedFairGate.Permit ignored = gate.acquire(lane)) {
+                order.add(lane);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        try {
+            started.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return thread;
+    }
+
+    private static void awaitQueued(WeightedFairGate gate, int live, int bulk) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Map<String, WeightedFairGate.LaneSnapshot> snapshot = gate.snapshot();
+            if (snapshot.get("live").queued() == live && snapshot.get("bulk").queued() == bulk) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Waiters did not queue in time");
+    }
+}